@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# Prueba de carga: compara el backend con hilos de plataforma y con hilos virtuales (+ limitador de conexiones).
+# Arranca el .jar dos veces contra la misma base de datos y lanza la misma ráfaga de peticiones con 'hey'
+# (https://github.com/rakyll/hey). Los hilos virtuales requieren Java 21.
+#
+# Uso: scripts/comparar-hilos.sh [concurrencia] [peticiones]
+# Variables: JAR, PUERTO, SPRING_DATASOURCE_URL/USERNAME/PASSWORD (igual que al ejecutar la aplicación).
+set -euo pipefail
+
+CONCURRENCIA="${1:-1000}"
+PETICIONES="${2:-50000}"
+JAR="${JAR:-target/CRUD-backend-0.0.1-SNAPSHOT.jar}"
+PUERTO="${PUERTO:-8080}"
+BASE="http://localhost:${PUERTO}"
+ENDPOINTS=("/api/v1/paises" "/api/v1/personas?limit=50" "/api/v1/personas/101")
+
+command -v hey >/dev/null || { echo "Falta 'hey' en el PATH (go install github.com/rakyll/hey@latest)." >&2; exit 1; }
+[ -f "$JAR" ] || { echo "No existe $JAR; ejecuta primero ./mvnw -DskipTests package." >&2; exit 1; }
+
+ejecutar_modo() {
+    local modo="$1" virtuales="$2"
+    java -jar "$JAR" --server.port="$PUERTO" --spring.threads.virtual.enabled="$virtuales" \
+        --logging.level.root=WARN --spring.jpa.show-sql=false >"/tmp/backend-${modo}.log" 2>&1 &
+    local pid=$!
+    trap 'kill '"$pid"' 2>/dev/null || true' EXIT
+
+    until curl -sf "${BASE}/actuator/health" >/dev/null; do
+        kill -0 "$pid" 2>/dev/null || { echo "El backend terminó al arrancar; ver /tmp/backend-${modo}.log" >&2; exit 1; }
+        sleep 1
+    done
+
+    for endpoint in "${ENDPOINTS[@]}"; do
+        hey -n 2000 -c 50 "${BASE}${endpoint}" >/dev/null # Calentamiento (JIT, pool de conexiones, cachés)
+        echo "== ${modo} | ${endpoint} | c=${CONCURRENCIA} n=${PETICIONES}"
+        hey -n "$PETICIONES" -c "$CONCURRENCIA" "${BASE}${endpoint}" \
+            | grep -E "Requests/sec|Average|Slowest|(50|95|99)%|\[[0-9]{3}\]"
+    done
+    if [ "$virtuales" = "true" ]; then
+        echo "== ${modo} | espera en el limitador"
+        curl -s "${BASE}/actuator/metrics/limitador.conexiones.espera"; echo
+    fi
+
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+ejecutar_modo plataforma false
+ejecutar_modo virtuales true
@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+# Mide cuánto tarda una instancia nueva en atender tráfico: desde que se lanza la JVM hasta que /actuator/health
+# responde (arranque) y hasta que responde la primera petición a la API (primera petición).
+# Compara el .jar tal cual, el .jar extraído con un archivo CDS (clases ya cargadas y verificadas por un arranque
+# de entrenamiento) y, si el .jar se construyó con -Parranque-rapido, lo mismo con AOT activado.
+#
+# Uso: scripts/medir-arranque.sh [salida.json]
+# Variables: JAR, PUERTO, REPETICIONES, AOT (true si el .jar tiene procesamiento AOT) y
+# SPRING_DATASOURCE_URL/USERNAME/PASSWORD (igual que al ejecutar la aplicación).
+set -euo pipefail
+
+SALIDA="${1:-target/arranque-resultados.json}"
+JAR="${JAR:-target/CRUD-backend-0.0.1-SNAPSHOT.jar}"
+PUERTO="${PUERTO:-8080}"
+REPETICIONES="${REPETICIONES:-3}"
+AOT="${AOT:-false}"
+BASE="http://localhost:${PUERTO}"
+DIRECTORIO="$(dirname "$SALIDA")/arranque"
+
+[ -f "$JAR" ] || { echo "No existe $JAR; ejecuta primero ./mvnw -DskipTests package." >&2; exit 1; }
+
+# Mismo procedimiento que el Dockerfile: extraer el .jar (clases y librerías como archivos, que es lo que CDS
+# puede archivar) y generar el archivo con un arranque de entrenamiento que termina al refrescar el contexto.
+rm -rf "$DIRECTORIO"
+java -Djarmode=tools -jar "$JAR" extract --destination "$DIRECTORIO" >/dev/null
+EXTRAIDO="$DIRECTORIO/$(basename "$JAR")"
+
+# El entrenamiento no se conecta a la BD (sin Flyway, sin validar el esquema). Se hace sin AOT: con AOT las
+# condiciones como spring.flyway.enabled quedan fijadas en el build. El archivo sirve igual para el modo AOT
+# porque el classpath es el mismo.
+java -XX:ArchiveClassesAtExit="$DIRECTORIO/app.jsa" -Dspring.context.exit=onRefresh \
+    -Dspring.datasource.url=jdbc:postgresql://localhost/entrenamiento -Dspring.flyway.enabled=false \
+    -Dspring.jpa.hibernate.ddl-auto=none -Dspring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false \
+    -Dlogging.level.root=WARN -jar "$EXTRAIDO" >"$DIRECTORIO/entrenamiento.log" 2>&1
+
+milisegundos() { echo $(( $(date +%s%N) / 1000000 )); }
+
+# Imprime "arranque_ms primera_peticion_ms" de una ejecución.
+medir() {
+    local inicio pid arranque
+    inicio=$(milisegundos)
+    java "$@" --server.port="$PUERTO" --logging.level.root=WARN --spring.jpa.show-sql=false \
+        >"$DIRECTORIO/medicion.log" 2>&1 &
+    pid=$!
+    trap 'kill '"$pid"' 2>/dev/null || true' EXIT
+
+    until curl -sf "${BASE}/actuator/health" >/dev/null; do
+        kill -0 "$pid" 2>/dev/null || { echo "El backend terminó al arrancar; ver $DIRECTORIO/medicion.log" >&2; exit 1; }
+        sleep 0.05
+    done
+    arranque=$(( $(milisegundos) - inicio ))
+    curl -sf "${BASE}/api/v1/paises" >/dev/null
+    echo "$arranque $(( $(milisegundos) - inicio ))"
+
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+declare -A MODOS=(
+    [jar]="-jar $JAR"
+    [cds]="-XX:SharedArchiveFile=$DIRECTORIO/app.jsa -jar $EXTRAIDO"
+)
+if [ "$AOT" = "true" ]; then
+    MODOS[aot+cds]="-XX:SharedArchiveFile=$DIRECTORIO/app.jsa -Dspring.aot.enabled=true -jar $EXTRAIDO"
+fi
+
+resultados=()
+for modo in "${!MODOS[@]}"; do
+    for ((i = 1; i <= REPETICIONES; i++)); do
+        tiempos="$(medir ${MODOS[$modo]})" # Con set -e, un arranque fallido termina el script
+        read -r arranque primera <<<"$tiempos"
+        echo "== ${modo} #${i}: arranque ${arranque} ms, primera peticion ${primera} ms"
+        resultados+=("{\"modo\":\"${modo}\",\"repeticion\":${i},\"arranqueMs\":${arranque},\"primeraPeticionMs\":${primera}}")
+    done
+done
+
+(IFS=,; echo "[${resultados[*]}]") >"$SALIDA"
+echo "Resultados en $SALIDA"
@@ -0,0 +1,279 @@
+package com.Gleisk78.CRUD_backend.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Prueba de carga HTTP contra una instancia en ejecución: reproduce tráfico CRUD mixto sobre /api/v1/personas y
+// /api/v1/paises y reporta, por operación y en total, peticiones por segundo y percentiles de latencia.
+// El resultado se escribe como JSON para poder compararlo entre versiones.
+//
+// Uso: CargaHttp [url-base] [duración-segundos] [concurrencia] [archivo-salida] [modo]
+// Modos: 'mixto' (por defecto, lecturas y escrituras), 'lectura' (solo lecturas, API bloqueante) y 'lectura-reactiva'
+// (las mismas lecturas contra /api/v1/reactivo). Los dos últimos comparan ambas APIs con la misma mezcla.
+// Es de lazo cerrado (cada hilo espera la respuesta antes de enviar la siguiente): con el servidor saturado mide
+// la latencia de servicio, no la que vería un cliente que sigue enviando a ritmo constante.
+public final class CargaHttp {
+
+    // Mezcla de tráfico: peso relativo de cada operación en el modo mixto y en los modos de solo lectura.
+    enum Operacion {
+        LISTAR_PAISES(20, 20),
+        PAIS_POR_ID(10, 15),
+        LISTAR_PERSONAS(25, 25),
+        PERSONAS_POR_PAIS(0, 15),
+        PERSONA_POR_ID(20, 25),
+        BUSCAR_PERSONAS(5, 0),
+        CREAR_PERSONA(10, 0),
+        PATCH_PERSONA(7, 0),
+        ELIMINAR_PERSONA(3, 0);
+
+        final int peso;
+        final int pesoLectura;
+
+        Operacion(int peso, int pesoLectura) {
+            this.peso = peso;
+            this.pesoLectura = pesoLectura;
+        }
+    }
+
+    private static final Duration CALENTAMIENTO = Duration.ofSeconds(10);
+    private static final String[] NOMBRES = {"Juan", "Ana", "Pedro", "María", "José", "Lucía", "Carlos", "Sofía"};
+
+    private final String base;
+    private final HttpClient cliente = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final long[] idsPaises;
+    private final long[] idsPersonas;
+    private final ConcurrentLinkedDeque<Long> creadas = new ConcurrentLinkedDeque<>(); // Solo se eliminan estas
+    private final Operacion[] ruleta;
+    private final String lecturas; // Prefijo de las operaciones de lectura: API bloqueante o reactiva
+
+    private CargaHttp(String base, String modo) throws IOException, InterruptedException {
+        this.base = base;
+        this.lecturas = modo.equals("lectura-reactiva") ? "/api/v1/reactivo" : "/api/v1";
+        boolean soloLectura = !modo.equals("mixto");
+        this.idsPaises = ids("/api/v1/paises?limit=500");
+        this.idsPersonas = ids("/api/v1/personas?limit=500");
+        if (idsPaises.length == 0 || idsPersonas.length == 0) {
+            throw new IllegalStateException("La base de datos necesita al menos un país y una persona para la prueba.");
+        }
+        List<Operacion> casillas = new ArrayList<>();
+        for (Operacion operacion : Operacion.values()) {
+            for (int i = 0; i < (soloLectura ? operacion.pesoLectura : operacion.peso); i++) {
+                casillas.add(operacion);
+            }
+        }
+        this.ruleta = casillas.toArray(Operacion[]::new);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String base = args.length > 0 ? args[0] : "http://localhost:8080";
+        int duracion = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        int concurrencia = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        Path salida = Path.of(args.length > 3 ? args[3] : "target/carga-resultados.json");
+        String modo = args.length > 4 ? args[4] : "mixto";
+        if (!List.of("mixto", "lectura", "lectura-reactiva").contains(modo)) {
+            throw new IllegalArgumentException("Modo desconocido: " + modo);
+        }
+
+        CargaHttp carga = new CargaHttp(base, modo);
+        System.out.printf("Calentando %ds y midiendo %ds contra %s (modo %s) con %d clientes concurrentes...%n",
+                CALENTAMIENTO.toSeconds(), duracion, base, modo, concurrencia);
+        carga.ejecutar(concurrencia, CALENTAMIENTO);
+        Map<Operacion, Muestras> resultados = carga.ejecutar(concurrencia, Duration.ofSeconds(duracion));
+
+        Map<String, Object> reporte = new LinkedHashMap<>();
+        reporte.put("fecha", Instant.now().toString());
+        reporte.put("url", base);
+        reporte.put("modo", modo);
+        reporte.put("duracionSegundos", duracion);
+        reporte.put("concurrencia", concurrencia);
+        Muestras total = new Muestras();
+        Map<String, Object> porOperacion = new LinkedHashMap<>();
+        for (Map.Entry<Operacion, Muestras> entrada : resultados.entrySet()) {
+            total.agregar(entrada.getValue());
+            porOperacion.put(entrada.getKey().name(), entrada.getValue().resumen(duracion));
+        }
+        reporte.put("total", total.resumen(duracion));
+        reporte.put("operaciones", porOperacion);
+
+        Files.createDirectories(salida.toAbsolutePath().getParent());
+        carga.mapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(salida.toFile(), reporte);
+        System.out.println(carga.mapper.writeValueAsString(reporte.get("total")));
+        System.out.println("Resultados completos en " + salida.toAbsolutePath());
+    }
+
+    private Map<Operacion, Muestras> ejecutar(int concurrencia, Duration duracion) throws Exception {
+        long fin = System.nanoTime() + duracion.toNanos();
+        ExecutorService hilos = Executors.newFixedThreadPool(concurrencia);
+        try {
+            List<Future<Map<Operacion, Muestras>>> trabajadores = new ArrayList<>();
+            for (int i = 0; i < concurrencia; i++) {
+                trabajadores.add(hilos.submit(() -> trabajar(fin)));
+            }
+            Map<Operacion, Muestras> resultados = new EnumMap<>(Operacion.class);
+            for (Future<Map<Operacion, Muestras>> trabajador : trabajadores) {
+                trabajador.get().forEach((operacion, muestras) ->
+                        resultados.computeIfAbsent(operacion, o -> new Muestras()).agregar(muestras));
+            }
+            return resultados;
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    // Cada hilo acumula sus propias muestras y se combinan al final: no hay contención al medir.
+    private Map<Operacion, Muestras> trabajar(long fin) {
+        Map<Operacion, Muestras> muestras = new EnumMap<>(Operacion.class);
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        while (System.nanoTime() < fin) {
+            Operacion operacion = ruleta[azar.nextInt(ruleta.length)];
+            HttpRequest peticion = peticion(operacion, azar);
+            long inicio = System.nanoTime();
+            int estado;
+            try {
+                HttpResponse<String> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofString());
+                estado = respuesta.statusCode();
+                if (operacion == Operacion.CREAR_PERSONA && estado == 201) {
+                    creadas.add(mapper.readTree(respuesta.body()).path("id").asLong());
+                }
+            } catch (IOException e) {
+                estado = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            muestras.computeIfAbsent(operacion, o -> new Muestras()).registrar(System.nanoTime() - inicio, estado);
+        }
+        return muestras;
+    }
+
+    private HttpRequest peticion(Operacion operacion, ThreadLocalRandom azar) {
+        long persona = idsPersonas[azar.nextInt(idsPersonas.length)];
+        long pais = idsPaises[azar.nextInt(idsPaises.length)];
+        String nombre = NOMBRES[azar.nextInt(NOMBRES.length)];
+        return switch (operacion) {
+            case LISTAR_PAISES -> get(lecturas + "/paises");
+            case PAIS_POR_ID -> get(lecturas + "/paises/" + pais);
+            case LISTAR_PERSONAS -> get(lecturas + "/personas?after=" + persona + "&limit=50");
+            case PERSONAS_POR_PAIS -> get(lecturas + "/personas?paisId=" + pais + "&limit=50");
+            case PERSONA_POR_ID -> get(lecturas + "/personas/" + persona);
+            case BUSCAR_PERSONAS -> get("/api/v1/personas/search?q=" + nombre.substring(0, 3).toLowerCase());
+            case CREAR_PERSONA -> json("POST", "/api/v1/personas",
+                    "{\"nombre\":\"" + nombre + " Carga\",\"edad\":" + azar.nextInt(90) + ",\"pais\":{\"id\":" + pais + "}}");
+            case PATCH_PERSONA -> json("PATCH", "/api/v1/personas/" + persona, "{\"edad\":" + azar.nextInt(90) + "}");
+            case ELIMINAR_PERSONA -> {
+                Long creada = creadas.pollFirst();
+                // Sin personas creadas por la prueba todavía, se mide una eliminación de un ID inexistente (404).
+                yield HttpRequest.newBuilder(URI.create(base + "/api/v1/personas/" + (creada != null ? creada : -1L)))
+                        .DELETE().timeout(Duration.ofSeconds(30)).build();
+            }
+        };
+    }
+
+    private HttpRequest get(String ruta) {
+        return HttpRequest.newBuilder(URI.create(base + ruta)).GET().timeout(Duration.ofSeconds(30)).build();
+    }
+
+    private HttpRequest json(String metodo, String ruta, String cuerpo) {
+        return HttpRequest.newBuilder(URI.create(base + ruta))
+                .header("Content-Type", "application/json")
+                .method(metodo, HttpRequest.BodyPublishers.ofString(cuerpo))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    private long[] ids(String ruta) throws IOException, InterruptedException {
+        HttpResponse<String> respuesta = cliente.send(get(ruta), HttpResponse.BodyHandlers.ofString());
+        if (respuesta.statusCode() != 200) {
+            throw new IllegalStateException("GET " + ruta + " respondió " + respuesta.statusCode());
+        }
+        JsonNode items = mapper.readTree(respuesta.body()).path("items");
+        long[] ids = new long[items.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = items.get(i).path("id").asLong();
+        }
+        return ids;
+    }
+
+    // Latencias (en nanosegundos) y estados HTTP de una operación.
+    static final class Muestras {
+
+        private long[] latencias = new long[1024];
+        private int cantidad;
+        private long exitos; // 2xx
+        private long erroresCliente; // 4xx
+        private long erroresServidor; // 5xx o fallo de conexión
+
+        void registrar(long latencia, int estado) {
+            if (cantidad == latencias.length) {
+                latencias = Arrays.copyOf(latencias, cantidad * 2);
+            }
+            latencias[cantidad++] = latencia;
+            if (estado >= 200 && estado < 300) {
+                exitos++;
+            } else if (estado >= 400 && estado < 500) {
+                erroresCliente++;
+            } else {
+                erroresServidor++;
+            }
+        }
+
+        void agregar(Muestras otras) {
+            latencias = Arrays.copyOf(latencias, Math.max(latencias.length, cantidad + otras.cantidad));
+            System.arraycopy(otras.latencias, 0, latencias, cantidad, otras.cantidad);
+            cantidad += otras.cantidad;
+            exitos += otras.exitos;
+            erroresCliente += otras.erroresCliente;
+            erroresServidor += otras.erroresServidor;
+        }
+
+        Map<String, Object> resumen(int segundos) {
+            long[] ordenadas = Arrays.copyOf(latencias, cantidad);
+            Arrays.sort(ordenadas);
+            Map<String, Object> resumen = new LinkedHashMap<>();
+            resumen.put("peticiones", cantidad);
+            resumen.put("peticionesPorSegundo", Math.round(cantidad * 10.0 / segundos) / 10.0);
+            resumen.put("exitos", exitos);
+            resumen.put("erroresCliente", erroresCliente);
+            resumen.put("erroresServidor", erroresServidor);
+            resumen.put("p50Ms", percentil(ordenadas, 0.50));
+            resumen.put("p95Ms", percentil(ordenadas, 0.95));
+            resumen.put("p99Ms", percentil(ordenadas, 0.99));
+            resumen.put("maxMs", percentil(ordenadas, 1.0));
+            return resumen;
+        }
+
+        private static double percentil(long[] ordenadas, double p) {
+            if (ordenadas.length == 0) {
+                return 0;
+            }
+            int indice = (int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1);
+            return Math.round(ordenadas[Math.max(indice, 0)] / 1_000.0) / 1_000.0;
+        }
+    }
+}
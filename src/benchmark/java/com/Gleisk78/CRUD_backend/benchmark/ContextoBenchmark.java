@@ -0,0 +1,50 @@
+package com.Gleisk78.CRUD_backend.benchmark;
+
+import com.Gleisk78.CRUD_backend.CrudBackendApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Arranca el contexto de Spring (sin servidor web) para los benchmarks de servicio.
+// Sin BENCHMARK_DB_URL usa H2 en memoria en modo PostgreSQL como sustituto; con ella, un PostgreSQL real.
+// Se configura por variables de entorno porque JMH ejecuta cada benchmark en una JVM nueva que las hereda.
+// Las consultas nativas propias de PostgreSQL (búsqueda por trigramas, PATCH con RETURNING) solo se pueden medir
+// contra PostgreSQL.
+final class ContextoBenchmark {
+
+    private ContextoBenchmark() {
+    }
+
+    static ConfigurableApplicationContext iniciar() {
+        // Argumentos de línea de comandos: tienen prioridad sobre application.properties.
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--spring.main.banner-mode=off",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"));
+        String url = System.getenv("BENCHMARK_DB_URL");
+        if (url == null || url.isBlank()) {
+            argumentos.addAll(List.of(
+                    "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                    "--spring.jpa.hibernate.ddl-auto=create-drop",
+                    "--spring.flyway.enabled=false")); // Las migraciones son de PostgreSQL
+        } else {
+            argumentos.addAll(List.of(
+                    "--spring.datasource.url=" + url,
+                    "--spring.datasource.username=" + System.getenv().getOrDefault("BENCHMARK_DB_USER", "postgres"),
+                    "--spring.datasource.password=" + System.getenv().getOrDefault("BENCHMARK_DB_PASSWORD", "")));
+        }
+        return new SpringApplicationBuilder(CrudBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(argumentos.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,97 @@
+package com.Gleisk78.CRUD_backend.benchmark;
+
+import com.Gleisk78.CRUD_backend.dto.PaginaCursor;
+import com.Gleisk78.CRUD_backend.dto.PersonaDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Costo de escribir una página de personas (la respuesta más grande de la API) en cada formato negociable:
+// JSON, JSON + gzip (lo que hace Tomcat con server.compression), Smile y CBOR, con y sin el módulo Blackbird.
+// Mide microsegundos por página; los tamaños de cada formato los reporta TamanoRespuestas.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatosBenchmark {
+
+    @Param({"50", "500"})
+    private int tamano;
+
+    @Param({"json", "json-gzip", "smile", "cbor"})
+    private String formato;
+
+    @Param({"false", "true"})
+    private boolean blackbird;
+
+    private ObjectWriter escritor;
+    private boolean gzip;
+    private PaginaCursor<PersonaDTO> pagina;
+
+    @Setup
+    public void iniciar() {
+        escritor = escritorPersonas(formato, blackbird);
+        gzip = formato.endsWith("-gzip");
+        pagina = paginaDePersonas(tamano);
+    }
+
+    @Benchmark
+    public byte[] escribirPaginaDePersonas() throws IOException {
+        return gzip ? comprimir(escritor.writeValueAsBytes(pagina)) : escritor.writeValueAsBytes(pagina);
+    }
+
+    // Mismo ObjectMapper que arma FormatosRespuestaConfig a partir de Jackson2ObjectMapperBuilder
+    static ObjectWriter escritorPersonas(String formato, boolean blackbird) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (formato.equals("smile")) {
+            builder.factory(new SmileFactory());
+        } else if (formato.equals("cbor")) {
+            builder.factory(new CBORFactory());
+        }
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        ObjectMapper mapper = builder.build();
+        return mapper.writerFor(new TypeReference<PaginaCursor<PersonaDTO>>() { });
+    }
+
+    static PaginaCursor<PersonaDTO> paginaDePersonas(int tamano) {
+        List<PersonaDTO> personas = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            personas.add(new PersonaDTO((long) i, "Persona número " + i, 20 + i % 60, (long) i % 20, "País " + i % 20, 3L, 1L));
+        }
+        return new PaginaCursor<>(personas, tamano, String.valueOf(tamano), true);
+    }
+
+    static byte[] comprimir(byte[] datos) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(datos.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(datos);
+        }
+        return salida.toByteArray();
+    }
+}
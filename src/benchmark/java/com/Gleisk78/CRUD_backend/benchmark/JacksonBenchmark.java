@@ -0,0 +1,82 @@
+package com.Gleisk78.CRUD_backend.benchmark;
+
+import com.Gleisk78.CRUD_backend.dto.PaginaCursor;
+import com.Gleisk78.CRUD_backend.dto.PersonaDTO;
+import com.Gleisk78.CRUD_backend.entity.Pais;
+import com.Gleisk78.CRUD_backend.entity.Persona;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialización JSON de las respuestas de listado (páginas de personas y países) y lectura del cuerpo de un POST,
+// con un ObjectMapper configurado como el de Spring Boot. Mide operaciones por segundo.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonBenchmark {
+
+    @Param({"50", "500"})
+    private int tamano;
+
+    private ObjectWriter escritorPersonas;
+    private ObjectWriter escritorPaises;
+    private ObjectReader lectorPersona;
+    private PaginaCursor<PersonaDTO> paginaPersonas;
+    private PaginaCursor<Pais> paginaPaises;
+    private byte[] cuerpoPersona;
+
+    @Setup
+    public void iniciar() throws IOException {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        escritorPersonas = mapper.writerFor(new TypeReference<PaginaCursor<PersonaDTO>>() { });
+        escritorPaises = mapper.writerFor(new TypeReference<PaginaCursor<Pais>>() { });
+        lectorPersona = mapper.readerFor(Persona.class);
+
+        List<PersonaDTO> personas = new ArrayList<>(tamano);
+        List<Pais> paises = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            personas.add(new PersonaDTO((long) i, "Persona número " + i, 20 + i % 60, (long) i % 20, "País " + i % 20, 3L, 1L));
+            paises.add(Pais.builder().id((long) i).nombre("País " + i).version(1L).build());
+        }
+        paginaPersonas = new PaginaCursor<>(personas, tamano, String.valueOf(tamano), true);
+        paginaPaises = new PaginaCursor<>(paises, tamano, String.valueOf(tamano), true);
+        cuerpoPersona = mapper.writeValueAsBytes(Persona.builder()
+                .nombre("Ana López").edad(28).pais(Pais.builder().id(3L).build()).build());
+    }
+
+    @Benchmark
+    public byte[] escribirPaginaDePersonas() throws IOException {
+        return escritorPersonas.writeValueAsBytes(paginaPersonas);
+    }
+
+    @Benchmark
+    public byte[] escribirPaginaDePaises() throws IOException {
+        return escritorPaises.writeValueAsBytes(paginaPaises);
+    }
+
+    @Benchmark
+    public Persona leerCuerpoDePersona() throws IOException {
+        return lectorPersona.readValue(cuerpoPersona);
+    }
+}
@@ -0,0 +1,123 @@
+package com.Gleisk78.CRUD_backend.benchmark;
+
+import com.Gleisk78.CRUD_backend.dto.PaginaCursor;
+import com.Gleisk78.CRUD_backend.dto.PersonaDTO;
+import com.Gleisk78.CRUD_backend.dto.ResultadoItemLote;
+import com.Gleisk78.CRUD_backend.entity.Pais;
+import com.Gleisk78.CRUD_backend.entity.Persona;
+import com.Gleisk78.CRUD_backend.service.PaisServicio;
+import com.Gleisk78.CRUD_backend.service.PersonaServicio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Caminos calientes de PersonaServicioImpl y PaisServicioImpl, con la base de datos incluida
+// (H2 en memoria por defecto, ver ContextoBenchmark). Mide latencia media por operación.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class ServicioBenchmark {
+
+    private static final int PAISES = 20;
+    private static final int PERSONAS = 10_000;
+
+    private ConfigurableApplicationContext contexto;
+    private PersonaServicio personaServicio;
+    private PaisServicio paisServicio;
+    private long[] idsPaises;
+    private long[] idsPersonas;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar();
+        personaServicio = contexto.getBean(PersonaServicio.class);
+        paisServicio = contexto.getBean(PaisServicio.class);
+
+        String sufijo = Long.toString(System.nanoTime(), Character.MAX_RADIX); // Nombres únicos si la BD es real
+        idsPaises = new long[PAISES];
+        for (int i = 0; i < PAISES; i++) {
+            idsPaises[i] = paisServicio.createPais(Pais.builder().nombre("Pais " + i + " " + sufijo).build()).getId();
+        }
+        List<Persona> personas = new ArrayList<>(PERSONAS);
+        for (int i = 0; i < PERSONAS; i++) {
+            personas.add(persona("Persona " + i, i % 90, idsPaises[i % PAISES]));
+        }
+        idsPersonas = personaServicio.crearPersonasEnLote(personas).getResultados().stream()
+                .mapToLong(ResultadoItemLote::getId)
+                .toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    private static Persona persona(String nombre, int edad, long idPais) {
+        return Persona.builder().nombre(nombre).edad(edad).pais(Pais.builder().id(idPais).build()).build();
+    }
+
+    private long personaAlAzar() {
+        return idsPersonas[ThreadLocalRandom.current().nextInt(idsPersonas.length)];
+    }
+
+    private long paisAlAzar() {
+        return idsPaises[ThreadLocalRandom.current().nextInt(idsPaises.length)];
+    }
+
+    @Benchmark
+    public Optional<PersonaDTO> personaPorId() {
+        return personaServicio.getPersonaById(personaAlAzar());
+    }
+
+    @Benchmark
+    public PaginaCursor<PersonaDTO> paginaDePersonas() {
+        return personaServicio.getPersonasPagina(null, personaAlAzar(), 50);
+    }
+
+    @Benchmark
+    public PaginaCursor<PersonaDTO> paginaDePersonasPorPais() {
+        return personaServicio.getPersonasPagina(paisAlAzar(), null, 50);
+    }
+
+    @Benchmark
+    public PaginaCursor<Pais> paginaDePaises() {
+        return paisServicio.getPaisesPagina(null, 50);
+    }
+
+    @Benchmark
+    public Optional<Pais> paisPorId() {
+        return paisServicio.getPaisById(paisAlAzar());
+    }
+
+    @Benchmark
+    public Persona crearPersona() {
+        return personaServicio.createPersona(persona("Nueva", 30, paisAlAzar()));
+    }
+
+    @Benchmark
+    public Persona actualizarPersona() {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        return personaServicio.updatePersona(personaAlAzar(), persona("Actualizada", azar.nextInt(90), paisAlAzar()), null);
+    }
+}
@@ -0,0 +1,54 @@
+package com.Gleisk78.CRUD_backend.benchmark;
+
+import com.Gleisk78.CRUD_backend.dto.PaginaCursor;
+import com.Gleisk78.CRUD_backend.dto.PersonaDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Tamaño en bytes de una página de personas en cada formato negociable, sin comprimir y con gzip.
+// Complementa a FormatosBenchmark (tiempos) con el otro costo de las respuestas grandes: el tráfico de salida.
+//
+// Uso: TamanoRespuestas [archivo-salida]
+public final class TamanoRespuestas {
+
+    private static final int[] TAMANOS = {50, 500};
+
+    private TamanoRespuestas() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path salida = Path.of(args.length > 0 ? args[0] : "target/tamanos-respuestas.json");
+        List<Map<String, Object>> resultados = new ArrayList<>();
+        for (int tamano : TAMANOS) {
+            PaginaCursor<PersonaDTO> pagina = FormatosBenchmark.paginaDePersonas(tamano);
+            long bytesJson = 0;
+            for (String formato : List.of("json", "smile", "cbor")) {
+                byte[] cuerpo = FormatosBenchmark.escritorPersonas(formato, false).writeValueAsBytes(pagina);
+                byte[] comprimido = FormatosBenchmark.comprimir(cuerpo);
+                if (formato.equals("json")) {
+                    bytesJson = cuerpo.length;
+                }
+                Map<String, Object> fila = new LinkedHashMap<>();
+                fila.put("personas", tamano);
+                fila.put("formato", formato);
+                fila.put("bytes", cuerpo.length);
+                fila.put("bytesGzip", comprimido.length);
+                fila.put("relativoAJson", Math.round(1000.0 * cuerpo.length / bytesJson) / 1000.0);
+                fila.put("gzipRelativoAJson", Math.round(1000.0 * comprimido.length / bytesJson) / 1000.0);
+                resultados.add(fila);
+                System.out.printf("%4d personas  %-6s %8d bytes  %7d con gzip%n", tamano, formato, cuerpo.length, comprimido.length);
+            }
+        }
+        Files.createDirectories(salida.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(salida.toFile(), resultados);
+        System.out.println("Resultados en " + salida.toAbsolutePath());
+    }
+}
@@ -2,8 +2,10 @@ package com.Gleisk78.CRUD_backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling // Publicador del feed de cambios y verificación de réplicas
 public class CrudBackendApplication {
 
 	public static void main(String[] args) {
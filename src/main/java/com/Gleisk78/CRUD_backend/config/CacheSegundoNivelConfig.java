@@ -0,0 +1,70 @@
+package com.Gleisk78.CRUD_backend.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+// Regiones de la caché de segundo nivel de Hibernate (JCache sobre Caffeine), cada una con su tamaño máximo y TTL.
+// Hibernate está configurado para fallar si usa una región que no se declaró aquí
+// (hibernate.javax.cache.missing_cache_strategy=fail), así ninguna región queda sin límites por descuido.
+@Configuration
+public class CacheSegundoNivelConfig {
+
+    // Regiones de entidades (ver @Cache en Pais y Persona) y de consultas (hint cacheRegion en los repositorios).
+    public static final String PAISES = "paises";
+    public static final String PERSONAS = "personas";
+    public static final String CONSULTAS_PAISES = "consultas.paises";
+    public static final String CONSULTAS_PERSONAS = "consultas.personas";
+    // Regiones internas de Hibernate: la de marcas de tiempo no debe expirar ni desalojar entradas, porque es la
+    // que invalida los resultados de consultas cuando cambia una tabla.
+    private static final String MARCAS_DE_TIEMPO = "default-update-timestamps-region";
+    private static final String CONSULTAS_POR_DEFECTO = "default-query-results-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerHibernate(@Value("${app.cache-l2.paises.tamano:1000}") long tamanoPaises,
+                                              @Value("${app.cache-l2.paises.ttl:1h}") Duration ttlPaises,
+                                              @Value("${app.cache-l2.personas.tamano:10000}") long tamanoPersonas,
+                                              @Value("${app.cache-l2.personas.ttl:10m}") Duration ttlPersonas,
+                                              @Value("${app.cache-l2.consultas.tamano:1000}") long tamanoConsultas,
+                                              @Value("${app.cache-l2.consultas.ttl:5m}") Duration ttlConsultas) {
+        CachingProvider proveedor = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = proveedor.getCacheManager(proveedor.getDefaultURI(), getClass().getClassLoader());
+        crear(cacheManager, PAISES, tamanoPaises, ttlPaises);
+        crear(cacheManager, PERSONAS, tamanoPersonas, ttlPersonas);
+        crear(cacheManager, CONSULTAS_PAISES, tamanoConsultas, ttlConsultas);
+        crear(cacheManager, CONSULTAS_PERSONAS, tamanoConsultas, ttlConsultas);
+        crear(cacheManager, CONSULTAS_POR_DEFECTO, tamanoConsultas, ttlConsultas);
+        crear(cacheManager, MARCAS_DE_TIEMPO, null, null);
+        return cacheManager;
+    }
+
+    // Hibernate usa este CacheManager en lugar de crear uno propio.
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelHibernate(CacheManager cacheManagerHibernate) {
+        return propiedades -> propiedades.put("hibernate.javax.cache.cache_manager", cacheManagerHibernate);
+    }
+
+    private static void crear(CacheManager cacheManager, String region, Long tamano, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        if (tamano != null) {
+            configuracion.setMaximumSize(OptionalLong.of(tamano));
+        }
+        if (ttl != null) {
+            configuracion.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        configuracion.setStatisticsEnabled(true);
+        if (cacheManager.getCache(region) != null) {
+            cacheManager.destroyCache(region); // El CacheManager del proveedor es compartido en la JVM (p. ej. en tests)
+        }
+        cacheManager.createCache(region, configuracion);
+    }
+}
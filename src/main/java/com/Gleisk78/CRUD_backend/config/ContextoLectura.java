@@ -0,0 +1,23 @@
+package com.Gleisk78.CRUD_backend.config;
+
+// Marca, para el hilo de la petición en curso, que sus lecturas deben ir a la base de datos primaria
+// aunque la transacción sea de solo lectura (lo activa LecturaPropiaFiltro tras una escritura del mismo cliente).
+public final class ContextoLectura {
+
+    private static final ThreadLocal<Boolean> PRIMARIA = new ThreadLocal<>();
+
+    private ContextoLectura() {
+    }
+
+    public static void forzarPrimaria() {
+        PRIMARIA.set(Boolean.TRUE);
+    }
+
+    public static boolean primariaForzada() {
+        return PRIMARIA.get() != null;
+    }
+
+    public static void limpiar() {
+        PRIMARIA.remove();
+    }
+}
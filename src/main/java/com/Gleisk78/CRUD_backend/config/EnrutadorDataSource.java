@@ -0,0 +1,36 @@
+package com.Gleisk78.CRUD_backend.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+// Envía las transacciones de solo lectura (@Transactional(readOnly = true)) a una réplica sana y todo lo demás a la
+// primaria. Debe usarse detrás de un LazyConnectionDataSourceProxy: el gestor de transacciones pide la conexión antes
+// de marcar la transacción como de solo lectura, y el proxy retrasa la elección hasta la primera sentencia.
+public class EnrutadorDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARIA = "primaria";
+
+    private final MonitorReplicas monitor;
+
+    public EnrutadorDataSource(DataSource primaria, MonitorReplicas monitor) {
+        this.monitor = monitor;
+        Map<Object, Object> destinos = new HashMap<>(monitor.dataSources());
+        destinos.put(PRIMARIA, primaria);
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primaria);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ContextoLectura.primariaForzada()) {
+            return PRIMARIA;
+        }
+        String replica = monitor.elegirReplica();
+        return replica != null ? replica : PRIMARIA; // Sin réplicas sanas se lee de la primaria
+    }
+}
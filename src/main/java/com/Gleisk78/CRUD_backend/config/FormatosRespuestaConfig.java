@@ -0,0 +1,46 @@
+package com.Gleisk78.CRUD_backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// Formatos de respuesta negociados con la cabecera Accept. JSON sigue siendo el formato por defecto; los clientes que
+// lo piden reciben Smile (application/x-jackson-smile) o CBOR (application/cbor), más compactos y rápidos de escribir.
+// Los conversores binarios parten del mismo Jackson2ObjectMapperBuilder que Spring Boot usa para JSON, así que tienen
+// los mismos módulos y opciones (spring.jackson.*) que el ObjectMapper principal.
+@Configuration
+public class FormatosRespuestaConfig {
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType SMILE = MediaType.parseMediaType(SMILE_VALUE);
+    // Secuencia de valores CBOR (RFC 8742): la exportación binaria escribe una persona tras otra, sin arreglo.
+    public static final String CBOR_SEQ_VALUE = "application/cbor-seq";
+    public static final MediaType CBOR_SEQ = MediaType.parseMediaType(CBOR_SEQ_VALUE);
+
+    // Spring Boot registra todos los beans Module en el ObjectMapper. Blackbird reemplaza la reflexión de los
+    // getters/setters por lambdas generadas, lo que acelera la serialización de listados grandes.
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    // Reemplazan a los conversores Smile y CBOR que Spring MVC agrega por defecto (sin la configuración de Spring Boot)
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper mapper = builder.factory(new SmileFactory()).build();
+        return new MappingJackson2SmileHttpMessageConverter(mapper);
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper mapper = builder.factory(new CBORFactory()).build();
+        return new MappingJackson2CborHttpMessageConverter(mapper);
+    }
+}
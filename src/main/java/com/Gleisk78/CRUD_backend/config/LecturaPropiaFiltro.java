@@ -0,0 +1,70 @@
+package com.Gleisk78.CRUD_backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+// "Leer lo que uno escribió": tras una escritura, el cliente recibe una cookie y durante 'app.replicas.lectura-propia'
+// sus lecturas van a la primaria, así no ve datos anteriores a su propio cambio en una réplica atrasada.
+public class LecturaPropiaFiltro extends OncePerRequestFilter {
+
+    static final String COOKIE = "leer-primaria-hasta";
+
+    private final Duration ventana;
+
+    public LecturaPropiaFiltro(Duration ventana) {
+        this.ventana = ventana;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long ahora = System.currentTimeMillis();
+        if (esEscritura(request)) {
+            // Se envía antes de procesar la petición: después la respuesta puede estar ya confirmada.
+            ResponseCookie cookie = ResponseCookie.from(COOKIE, Long.toString(ahora + ventana.toMillis()))
+                    .path("/")
+                    .maxAge(ventana)
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        } else if (vigente(request, ahora)) {
+            ContextoLectura.forzarPrimaria();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ContextoLectura.limpiar();
+        }
+    }
+
+    private static boolean esEscritura(HttpServletRequest request) {
+        String metodo = request.getMethod();
+        return !("GET".equals(metodo) || "HEAD".equals(metodo) || "OPTIONS".equals(metodo));
+    }
+
+    private static boolean vigente(HttpServletRequest request, long ahora) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > ahora;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
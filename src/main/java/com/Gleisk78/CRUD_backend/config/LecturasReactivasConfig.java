@@ -0,0 +1,57 @@
+package com.Gleisk78.CRUD_backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+// Pool R2DBC de las lecturas no bloqueantes (PersonaServicioReactivoImpl y PaisServicioReactivoImpl).
+// Solo se publica el DatabaseClient: si la ConnectionFactory fuera un bean, Spring Boot dejaría de configurar el
+// DataSource JDBC que usan JPA y Flyway. Por eso el pool se cierra aquí y no como bean propio.
+@Configuration
+public class LecturasReactivasConfig implements DisposableBean {
+
+    private ConnectionPool pool;
+
+    @Bean
+    public DatabaseClient databaseClient(DataSourceProperties propiedades,
+                                         @Value("${app.reactivo.url}") String url,
+                                         @Value("${app.reactivo.pool-minimo:2}") int poolMinimo,
+                                         @Value("${app.reactivo.pool-maximo:20}") int poolMaximo,
+                                         @Value("${app.reactivo.espera-maxima:5s}") Duration esperaMaxima,
+                                         MeterRegistry registro) {
+        ConnectionFactoryOptions.Builder opciones = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, propiedades.determineUsername());
+        String clave = propiedades.determinePassword();
+        if (clave != null) {
+            opciones.option(ConnectionFactoryOptions.PASSWORD, clave);
+        }
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(opciones.build()))
+                .name("lecturas-reactivas")
+                .initialSize(poolMinimo)
+                .maxSize(poolMaximo)
+                .maxAcquireTime(esperaMaxima) // Sin conexión libre en ese plazo la lectura falla en vez de encolarse sin fin
+                .build());
+        // r2dbc.pool.acquired, r2dbc.pool.pending... en /actuator/metrics
+        new ConnectionPoolMetrics(pool, "lecturas-reactivas", Tags.empty()).bindTo(registro);
+        return DatabaseClient.create(pool);
+    }
+
+    @Override
+    public void destroy() {
+        if (pool != null) {
+            pool.dispose();
+        }
+    }
+}
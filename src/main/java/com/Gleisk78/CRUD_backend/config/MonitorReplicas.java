@@ -0,0 +1,122 @@
+package com.Gleisk78.CRUD_backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Verifica periódicamente cada réplica de lectura: debe responder y su retraso de replicación no puede superar
+// 'app.replicas.retraso-maximo'. Solo las réplicas sanas reciben lecturas (por turnos); hasta la primera
+// verificación, o si ninguna está sana, las lecturas van a la primaria.
+public class MonitorReplicas implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonitorReplicas.class);
+
+    // Retraso en segundos: 0 si la réplica ya aplicó todo lo recibido (una primaria sin escrituras no genera retraso
+    // aparente); si no, la antigüedad de la última transacción aplicada. En una base que no es réplica vale 0.
+    private static final String CONSULTA_RETRASO =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final Map<String, Replica> replicas = new LinkedHashMap<>();
+    private final Duration retrasoMaximo;
+    private final AtomicInteger turno = new AtomicInteger();
+    private volatile List<String> sanas = List.of();
+
+    public MonitorReplicas(Map<String, HikariDataSource> dataSources, Duration retrasoMaximo, MeterRegistry registro) {
+        this.retrasoMaximo = retrasoMaximo;
+        dataSources.forEach((nombre, dataSource) -> {
+            Replica replica = new Replica(dataSource);
+            replicas.put(nombre, replica);
+            Gauge.builder("replicas.retraso", replica, r -> r.retrasoSegundos)
+                    .tag("replica", nombre)
+                    .description("Retraso de replicación en segundos")
+                    .baseUnit("seconds")
+                    .register(registro);
+            Gauge.builder("replicas.sana", replica, r -> r.sana ? 1 : 0)
+                    .tag("replica", nombre)
+                    .description("1 si la réplica recibe lecturas")
+                    .register(registro);
+        });
+        logger.info("MonitorReplicas inicializado con {} réplicas y un retraso máximo de {}.", replicas.size(), retrasoMaximo);
+    }
+
+    Map<String, DataSource> dataSources() {
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        replicas.forEach((nombre, replica) -> dataSources.put(nombre, replica.dataSource));
+        return dataSources;
+    }
+
+    // Réplica sana para la próxima lectura, por turnos; null si no hay ninguna.
+    String elegirReplica() {
+        List<String> candidatas = sanas;
+        if (candidatas.isEmpty()) {
+            return null;
+        }
+        return candidatas.get(Math.floorMod(turno.getAndIncrement(), candidatas.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.replicas.intervalo-verificacion:2s}")
+    public void verificar() {
+        List<String> nuevasSanas = replicas.entrySet().stream()
+                .filter(entrada -> verificar(entrada.getKey(), entrada.getValue()))
+                .map(Map.Entry::getKey)
+                .toList();
+        sanas = nuevasSanas;
+    }
+
+    private boolean verificar(String nombre, Replica replica) {
+        boolean sana;
+        try (Connection conexion = replica.dataSource.getConnection();
+             PreparedStatement consulta = conexion.prepareStatement(CONSULTA_RETRASO)) {
+            consulta.setQueryTimeout(2);
+            try (ResultSet resultado = consulta.executeQuery()) {
+                resultado.next();
+                replica.retrasoSegundos = resultado.getDouble(1);
+            }
+            sana = replica.retrasoSegundos <= retrasoMaximo.toMillis() / 1000.0;
+            if (!sana && replica.sana) {
+                logger.warn("Réplica {} retirada: retraso de {} s (máximo {}).", nombre, replica.retrasoSegundos, retrasoMaximo);
+            }
+        } catch (SQLException e) {
+            sana = false;
+            if (replica.sana) {
+                logger.warn("Réplica {} retirada: no responde ({}).", nombre, e.getMessage());
+            }
+        }
+        if (sana && !replica.sana) {
+            logger.info("Réplica {} disponible para lecturas (retraso {} s).", nombre, replica.retrasoSegundos);
+        }
+        replica.sana = sana;
+        return sana;
+    }
+
+    @Override
+    public void close() {
+        replicas.values().forEach(replica -> replica.dataSource.close());
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource dataSource;
+        private volatile boolean sana;
+        private volatile double retrasoSegundos;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
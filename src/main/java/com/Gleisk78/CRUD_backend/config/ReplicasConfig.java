@@ -0,0 +1,65 @@
+package com.Gleisk78.CRUD_backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Réplicas de lectura (opcional, app.replicas.habilitado=true). Reemplaza el DataSource único de spring.datasource.*
+// por un enrutador: las transacciones de solo lectura van a las réplicas sanas y las escrituras a la primaria.
+@Configuration
+@ConditionalOnProperty(name = "app.replicas.habilitado", havingValue = "true")
+public class ReplicasConfig {
+
+    // La primaria se configura igual que el DataSource por defecto (spring.datasource.* y spring.datasource.hikari.*).
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaria(DataSourceProperties propiedades) {
+        return propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public MonitorReplicas monitorReplicas(DataSourceProperties propiedades,
+                                           @Value("${app.replicas.urls}") List<String> urls,
+                                           @Value("${app.replicas.pool-maximo:10}") int poolMaximo,
+                                           @Value("${app.replicas.retraso-maximo:5s}") Duration retrasoMaximo,
+                                           MeterRegistry registro) {
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls.get(i).strip());
+            replica.setUsername(propiedades.determineUsername());
+            replica.setPassword(propiedades.determinePassword());
+            replica.setMaximumPoolSize(poolMaximo);
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(2_000); // Una réplica caída no debe retener la petición
+            replica.setInitializationFailTimeout(-1); // Arranca aunque la réplica no esté disponible todavía
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new MonitorReplicas(replicas, retrasoMaximo, registro);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaria, MonitorReplicas monitorReplicas) {
+        return new LazyConnectionDataSourceProxy(new EnrutadorDataSource(primaria, monitorReplicas));
+    }
+
+    @Bean
+    public LecturaPropiaFiltro lecturaPropiaFiltro(@Value("${app.replicas.lectura-propia:5s}") Duration ventana) {
+        return new LecturaPropiaFiltro(ventana);
+    }
+}
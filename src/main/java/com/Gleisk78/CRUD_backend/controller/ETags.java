@@ -0,0 +1,69 @@
+package com.Gleisk78.CRUD_backend.controller;
+
+import com.Gleisk78.CRUD_backend.dto.PersonaDTO;
+import com.Gleisk78.CRUD_backend.entity.Pais;
+import com.Gleisk78.CRUD_backend.exception.VersionNoCoincideException;
+
+// Construcción y lectura de los ETag de la API. Se derivan de las columnas @Version, así que calcularlos no requiere
+// serializar ni hashear el cuerpo de la respuesta.
+final class ETags {
+
+    private ETags() {
+    }
+
+    // Persona: su versión y la de su país (el nombre del país también viaja en la respuesta).
+    static String dePersona(PersonaDTO persona) {
+        return "\"" + persona.getVersion() + "-" + persona.getPaisVersion() + "\"";
+    }
+
+    static String dePais(Pais pais) {
+        return "\"" + pais.getVersion() + "\"";
+    }
+
+    // Listados: la versión de la colección. El ETag se valida siempre contra la misma URL (incluida la consulta),
+    // así que no hace falta que distinga entre páginas. Es débil (W/): la misma versión se envía en JSON, Smile o
+    // CBOR, con o sin gzip, y Tomcat no comprime las respuestas con un ETag fuerte. Los recursos individuales
+    // conservan ETag fuertes porque su valor vuelve en If-Match.
+    static String deColeccion(String version) {
+        return "W/\"c-" + version + "\"";
+    }
+
+    // Comparación débil con la cabecera If-None-Match (puede traer varios ETag separados por comas, o '*'), para
+    // los endpoints que no pueden usar WebRequest.checkNotModified porque la versión llega de forma asíncrona.
+    static boolean coincide(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String buscado = sinPrefijoDebil(etag);
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.strip();
+            if (valor.equals("*") || sinPrefijoDebil(valor).equals(buscado)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String sinPrefijoDebil(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    // Versión esperada a partir de la cabecera If-Match: null si no se envió o es '*'.
+    // Solo se compara la versión propia del recurso (el primer número del ETag).
+    static Long versionEsperada(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.strip();
+        if (valor.startsWith("W/")) {
+            throw new VersionNoCoincideException("If-Match requiere un ETag fuerte.");
+        }
+        valor = valor.replace("\"", "");
+        int guion = valor.indexOf('-');
+        try {
+            return Long.parseLong(guion >= 0 ? valor.substring(0, guion) : valor);
+        } catch (NumberFormatException e) {
+            throw new VersionNoCoincideException("If-Match no corresponde a ningún ETag de este recurso: " + ifMatch);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.Gleisk78.CRUD_backend.controller;
+
+import com.Gleisk78.CRUD_backend.dto.EstadisticasPaisDTO;
+import com.Gleisk78.CRUD_backend.entity.Pais;
+import com.Gleisk78.CRUD_backend.service.EstadisticasPaisServicio;
+import com.Gleisk78.CRUD_backend.service.PaisServicio;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Reconstrucción de las estadísticas por país (tabla estadisticas_pais) contando personas.
+// Bloquea estadisticas_pais en modo EXCLUSIVE y recorre personas, así que frena las escrituras de personas mientras
+// dura. Como ParticionController, solo se publica con app.estadisticas.admin.habilitado=true.
+@RestController
+@ConditionalOnProperty(name = "app.estadisticas.admin.habilitado", havingValue = "true")
+@RequestMapping("/api/v1/admin/estadisticas")
+public class EstadisticasAdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstadisticasAdminController.class);
+
+    private final EstadisticasPaisServicio estadisticasPaisServicio;
+    private final PaisServicio paisServicio;
+
+    @Autowired
+    public EstadisticasAdminController(EstadisticasPaisServicio estadisticasPaisServicio, PaisServicio paisServicio) {
+        this.estadisticasPaisServicio = estadisticasPaisServicio;
+        this.paisServicio = paisServicio;
+        logger.info("EstadisticasAdminController inicializado y listo para manejar peticiones.");
+    }
+
+    // POST: Reconstruir desde cero las estadísticas de todos los países
+    // Endpoint: POST /api/v1/admin/estadisticas/reconstruir
+    @PostMapping("/reconstruir")
+    public ResponseEntity<List<EstadisticasPaisDTO>> reconstruirEstadisticas() {
+        logger.info("Recibida petición POST para reconstruir las estadísticas por país.");
+        estadisticasPaisServicio.reconstruir();
+        List<Long> ids = paisServicio.getAllPaises().stream().map(Pais::getId).toList();
+        return ResponseEntity.ok(estadisticasPaisServicio.getEstadisticas(ids)); // Retorna 200 OK
+    }
+
+    // POST: Reconstruir las estadísticas de un país (lee solo las personas de ese país)
+    // Endpoint: POST /api/v1/admin/estadisticas/{idPais}/reconstruir
+    @PostMapping("/{idPais}/reconstruir")
+    public ResponseEntity<EstadisticasPaisDTO> reconstruirEstadisticasPais(@PathVariable("idPais") Long idPais) {
+        logger.info("Recibida petición POST para reconstruir las estadísticas del país con ID: {}.", idPais);
+        if (paisServicio.getPaisById(idPais).isEmpty()) {
+            logger.warn("País con ID {} no encontrado al reconstruir estadísticas.", idPais);
+            return ResponseEntity.notFound().build(); // Retorna 404 Not Found
+        }
+        estadisticasPaisServicio.reconstruir(idPais);
+        return ResponseEntity.ok(estadisticasPaisServicio.getEstadisticas(idPais)); // Retorna 200 OK
+    }
+}
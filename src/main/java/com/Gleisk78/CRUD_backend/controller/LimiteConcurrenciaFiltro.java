@@ -0,0 +1,152 @@
+package com.Gleisk78.CRUD_backend.controller;
+
+import com.Gleisk78.CRUD_backend.service.LimiteAdaptativo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Descarte de carga para /api/v1/personas y /api/v1/paises: cada grupo de endpoints tiene un LimiteAdaptativo y las
+// peticiones que lo superan reciben 503 con Retry-After en el acto, en vez de hacer cola hasta agotar los timeouts
+// cuando PostgreSQL se frena. Al reducirse el límite la cola nunca llega a formarse, y al recuperarse la BD el límite
+// vuelve a crecer con la latencia.
+// Las lecturas baratas (por ID, estadísticas en memoria) tienen un límite aparte de los listados, la búsqueda y las
+// escrituras, así una ráfaga de consultas caras no deja sin lugar a las lecturas por ID.
+// Fuera del límite: el feed de cambios, la exportación y la importación (conexiones largas a propósito, con sus
+// propios topes) y la API reactiva, que responde en segundo plano.
+@Component
+@ConditionalOnProperty(name = "app.limite-concurrencia.habilitado", havingValue = "true")
+public class LimiteConcurrenciaFiltro extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LimiteConcurrenciaFiltro.class);
+
+    private static final String MENSAJE = "El servicio está saturado, intenta nuevamente en unos segundos.";
+
+    enum Grupo {
+        LECTURA, COSTOSA
+    }
+
+    private final Map<Grupo, LimiteAdaptativo> limites = new EnumMap<>(Grupo.class);
+    private final Map<Grupo, Counter> rechazos = new EnumMap<>(Grupo.class);
+    private final String retryAfter;
+
+    @Autowired
+    public LimiteConcurrenciaFiltro(@Value("${app.limite-concurrencia.lectura.inicial:50}") int inicialLectura,
+                                    @Value("${app.limite-concurrencia.lectura.minimo:10}") int minimoLectura,
+                                    @Value("${app.limite-concurrencia.lectura.maximo:200}") int maximoLectura,
+                                    @Value("${app.limite-concurrencia.costosa.inicial:20}") int inicialCostosa,
+                                    @Value("${app.limite-concurrencia.costosa.minimo:4}") int minimoCostosa,
+                                    @Value("${app.limite-concurrencia.costosa.maximo:100}") int maximoCostosa,
+                                    @Value("${app.limite-concurrencia.tolerancia:1.5}") double tolerancia,
+                                    @Value("${app.limite-concurrencia.suavizado:0.2}") double suavizado,
+                                    @Value("${app.limite-concurrencia.ventana:1s}") Duration ventana,
+                                    @Value("${app.limite-concurrencia.muestras-minimas:10}") int muestrasMinimas,
+                                    @Value("${app.limite-concurrencia.ventanas-rtt-largo:60}") int ventanasRttLargo,
+                                    @Value("${app.limite-concurrencia.retry-after:1s}") Duration retryAfter,
+                                    MeterRegistry registro) {
+        limites.put(Grupo.LECTURA, new LimiteAdaptativo(inicialLectura, minimoLectura, maximoLectura, tolerancia,
+                suavizado, ventana.toNanos(), muestrasMinimas, ventanasRttLargo, System::nanoTime));
+        limites.put(Grupo.COSTOSA, new LimiteAdaptativo(inicialCostosa, minimoCostosa, maximoCostosa, tolerancia,
+                suavizado, ventana.toNanos(), muestrasMinimas, ventanasRttLargo, System::nanoTime));
+        this.retryAfter = Long.toString(Math.max(1, retryAfter.toSeconds()));
+        limites.forEach((grupo, limite) -> {
+            String etiqueta = grupo.name().toLowerCase();
+            Gauge.builder("limite.concurrencia.limite", limite, LimiteAdaptativo::limite)
+                    .description("Peticiones simultáneas permitidas en este momento")
+                    .tag("grupo", etiqueta)
+                    .register(registro);
+            Gauge.builder("limite.concurrencia.en.vuelo", limite, LimiteAdaptativo::enVuelo)
+                    .description("Peticiones en curso")
+                    .tag("grupo", etiqueta)
+                    .register(registro);
+            Gauge.builder("limite.concurrencia.rtt.largo", limite, LimiteAdaptativo::rttLargoMilisegundos)
+                    .description("Latencia de referencia (promedio de largo plazo) en milisegundos")
+                    .tag("grupo", etiqueta)
+                    .register(registro);
+            rechazos.put(grupo, Counter.builder("limite.concurrencia.rechazos")
+                    .description("Peticiones rechazadas con 503 por superar el límite")
+                    .tag("grupo", etiqueta)
+                    .register(registro));
+        });
+        logger.info("Límite de concurrencia adaptativo activo (lectura: {}..{}, costosa: {}..{}).",
+                minimoLectura, maximoLectura, minimoCostosa, maximoCostosa);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Grupo grupo = grupo(request.getMethod(), request.getRequestURI().substring(request.getContextPath().length()));
+        if (grupo == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        LimiteAdaptativo limite = limites.get(grupo);
+        LimiteAdaptativo.Permiso permiso = limite.adquirir();
+        if (permiso == null) {
+            rechazos.get(grupo).increment();
+            logger.debug("Petición {} {} rechazada: límite {} alcanzado.", request.getMethod(), request.getRequestURI(), limite.limite());
+            rechazar(response);
+            return;
+        }
+        boolean fallo = true;
+        try {
+            chain.doFilter(request, response);
+            fallo = response.getStatus() >= 500;
+        } finally {
+            // Una respuesta asíncrona sigue después de este punto: su duración no sería la del trabajo real
+            limite.liberar(permiso, fallo, !request.isAsyncStarted());
+        }
+    }
+
+    private void rechazar(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(MENSAJE);
+    }
+
+    // Grupo de la petición, o null si queda fuera del límite.
+    static Grupo grupo(String metodo, String ruta) {
+        String resto;
+        if (ruta.startsWith("/api/v1/personas")) {
+            resto = ruta.substring("/api/v1/personas".length());
+        } else if (ruta.startsWith("/api/v1/paises")) {
+            resto = ruta.substring("/api/v1/paises".length());
+        } else {
+            return null;
+        }
+        if (!resto.isEmpty() && !resto.startsWith("/")) {
+            return null; // Otra ruta con el mismo prefijo
+        }
+        if ("OPTIONS".equals(metodo) || resto.startsWith("/changes") || resto.startsWith("/export")
+                || resto.startsWith("/import")) {
+            return null;
+        }
+        boolean lectura = "GET".equals(metodo) || "HEAD".equals(metodo);
+        // Listados y búsqueda recorren muchas filas; el resto de las lecturas devuelve un recurso o datos en memoria
+        if (lectura && !(resto.isEmpty() || resto.equals("/") || resto.startsWith("/search"))) {
+            return Grupo.LECTURA;
+        }
+        return Grupo.COSTOSA;
+    }
+}
@@ -0,0 +1,38 @@
+package com.Gleisk78.CRUD_backend.controller;
+
+import com.Gleisk78.CRUD_backend.exception.ServicioSaturadoException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+// Errores que pueden ocurrir en cualquier endpoint y no dependen de la operación; los errores propios de cada
+// operación (404, 409, 412...) se siguen resolviendo en cada controlador.
+@RestControllerAdvice
+public class ManejadorErrores {
+
+    private static final Logger logger = LoggerFactory.getLogger(ManejadorErrores.class);
+
+    // La petición no consiguió turno para usar la base de datos: 503 con Retry-After para que el cliente reintente.
+    @ExceptionHandler(ServicioSaturadoException.class)
+    public ResponseEntity<String> servicioSaturado(ServicioSaturadoException e) {
+        logger.warn("Petición rechazada por saturación: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage()); // Retorna 503 Service Unavailable
+    }
+
+    // Una consulta superó su tiempo máximo (por ejemplo, la búsqueda por nombre con un texto muy poco selectivo o
+    // con la tabla bloqueada): 503 con Retry-After en lugar de un 500, ya que la base de datos sigue disponible.
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ResponseEntity<String> consultaDemorada(QueryTimeoutException e) {
+        logger.warn("Consulta cancelada por tiempo máximo: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("La consulta tardó demasiado; reintente o use un criterio más específico."); // Retorna 503 Service Unavailable
+    }
+}
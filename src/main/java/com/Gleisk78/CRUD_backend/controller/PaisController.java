@@ -1,18 +1,34 @@
 package com.Gleisk78.CRUD_backend.controller;
 
+import com.Gleisk78.CRUD_backend.dto.EstadisticasCacheDTO;
+import com.Gleisk78.CRUD_backend.dto.EstadisticasPaisDTO;
+import com.Gleisk78.CRUD_backend.dto.PaginaCursor;
+import com.Gleisk78.CRUD_backend.dto.PaisPatchDTO;
 import com.Gleisk78.CRUD_backend.entity.Pais;
+import com.Gleisk78.CRUD_backend.exception.PaisConPersonasException;
+import com.Gleisk78.CRUD_backend.exception.RecursoNoEncontradoException;
+import com.Gleisk78.CRUD_backend.exception.VersionNoCoincideException;
+import com.Gleisk78.CRUD_backend.service.EstadisticasPaisServicio;
 import com.Gleisk78.CRUD_backend.service.PaisServicio;
+import com.Gleisk78.CRUD_backend.service.PublicadorCambios;
+import com.Gleisk78.CRUD_backend.service.VersionColecciones;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.slf4j.Logger; // Importamos la interfaz de logger
 import org.slf4j.LoggerFactory; // Importamos la fábrica para obtener el logger
 
 import java.util.List;
 import java.util.Optional;
 
-@CrossOrigin(maxAge = 3600) // Permite peticiones desde otros dominios (ej. tu frontend)
+@CrossOrigin(maxAge = 3600, exposedHeaders = HttpHeaders.ETAG) // Permite peticiones (y leer el ETag) desde otros dominios (ej. tu frontend)
 @RestController // Indica que es un controlador REST
 @RequestMapping("/api/v1/paises") // Prefijo de URL para todos los endpoints de País
 public class PaisController {
@@ -21,32 +37,105 @@ public class PaisController {
     private static final Logger logger = LoggerFactory.getLogger(PaisController.class);
 
     private final PaisServicio paisServicio; // Inyección de dependencia
+    private final EstadisticasPaisServicio estadisticasPaisServicio;
+    private final PublicadorCambios publicadorCambios;
 
     @Autowired
-    public PaisController(PaisServicio paisServicio) {
+    public PaisController(PaisServicio paisServicio, EstadisticasPaisServicio estadisticasPaisServicio,
+                          PublicadorCambios publicadorCambios) {
         this.paisServicio = paisServicio;
+        this.estadisticasPaisServicio = estadisticasPaisServicio;
+        this.publicadorCambios = publicadorCambios;
         logger.info("PaisController inicializado y listo para manejar peticiones.");
     }
 
-    // GET: Obtener todos los países
-    // Endpoint: GET /api/v1/paises
+    // GET: Obtener países paginados por cursor
+    // Endpoint: GET /api/v1/paises?after={id_pais}&limit={N}
+    // 'after' es el 'siguienteCursor' de la página anterior; 'limit' se acota al máximo configurado en el servidor.
+    // El ETag es la versión del listado: los clientes que re-consultan con If-None-Match reciben 304 sin cuerpo.
     @GetMapping
-    public ResponseEntity<List<Pais>> getAllPaises() {
-        logger.info("Recibida petición GET para obtener todos los países.");
-        List<Pais> paises = paisServicio.getAllPaises();
-        logger.debug("Se encontraron {} países en la base de datos.", paises.size());
-        return ResponseEntity.ok(paises); // Retorna 200 OK con la lista de países
+    public ResponseEntity<PaginaCursor<Pais>> getAllPaises(@RequestParam(value = "after", required = false) Long after,
+                                                           @RequestParam(value = "limit", required = false) Integer limit,
+                                                           WebRequest webRequest) {
+        logger.info("Recibida petición GET para obtener países (after={}, limit={}).", after, limit);
+        String etag = ETags.deColeccion(paisServicio.getVersionListado());
+        if (webRequest.checkNotModified(etag)) {
+            logger.debug("Listado de países sin cambios (ETag {}). Se responde 304.", etag);
+            return null; // Spring ya escribió el 304 Not Modified
+        }
+        PaginaCursor<Pais> pagina = paisServicio.getPaisesPagina(after, limit);
+        logger.debug("Se devuelven {} países. Hay más: {}.", pagina.getItems().size(), pagina.isHayMas());
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(pagina); // Retorna 200 OK con la página de países
+    }
+
+    // GET: Obtener un país por su nombre exacto
+    // Endpoint: GET /api/v1/paises/buscar?nombre={nombre}
+    @GetMapping("/buscar")
+    public ResponseEntity<Pais> getPaisByNombre(@RequestParam("nombre") String nombre) {
+        logger.info("Recibida petición GET para obtener país con nombre: {}.", nombre);
+        return paisServicio.getPaisByNombre(nombre)
+                .map(ResponseEntity::ok) // Si el país existe, retorna 200 OK
+                .orElseGet(() -> ResponseEntity.notFound().build()); // Si no, 404 Not Found
+    }
+
+    // GET: Feed de cambios de países (Server-Sent Events)
+    // Endpoint: GET /api/v1/paises/changes   (Accept: text/event-stream)
+    // Mismo formato que /personas/changes. Renombrar un país no genera eventos de sus personas.
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> getPaisesChanges(@RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId) {
+        logger.info("Recibida suscripción al feed de cambios de países (Last-Event-ID: {}).", ultimoEventoId);
+        try {
+            return ResponseEntity.ok(publicadorCambios.suscribir(VersionColecciones.PAISES, ultimoEventoId)); // Retorna 200 OK en streaming
+        } catch (IllegalArgumentException e) {
+            logger.error("Suscripción rechazada: {}", e.getMessage());
+            return ResponseEntity.badRequest().build(); // Retorna 400 Bad Request
+        }
+    }
+
+    // GET: Métricas de la caché de países (aciertos, fallos, desalojos, ocupación)
+    // Endpoint: GET /api/v1/paises/cache/estadisticas
+    @GetMapping("/cache/estadisticas")
+    public ResponseEntity<EstadisticasCacheDTO> getEstadisticasCache() {
+        logger.info("Recibida petición GET para obtener las estadísticas de la caché de países.");
+        return ResponseEntity.ok(paisServicio.getEstadisticasCache());
+    }
+
+    // GET: Estadísticas de todos los países (población, edad mínima/máxima/promedio e histograma de edades)
+    // Endpoint: GET /api/v1/paises/stats
+    // Se responden desde la tabla estadisticas_pais, sin recorrer la tabla de personas.
+    @GetMapping("/stats")
+    public ResponseEntity<List<EstadisticasPaisDTO>> getEstadisticasPaises() {
+        logger.info("Recibida petición GET para obtener las estadísticas de todos los países.");
+        List<Long> ids = paisServicio.getAllPaises().stream().map(Pais::getId).toList();
+        return ResponseEntity.ok(estadisticasPaisServicio.getEstadisticas(ids)); // Retorna 200 OK
+    }
+
+    // GET: Estadísticas de un país
+    // Endpoint: GET /api/v1/paises/{id}/stats
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<EstadisticasPaisDTO> getEstadisticasPais(@PathVariable("id") Long id) {
+        logger.info("Recibida petición GET para obtener las estadísticas del país con ID: {}.", id);
+        if (paisServicio.getPaisById(id).isEmpty()) {
+            logger.warn("País con ID {} no encontrado al pedir estadísticas.", id);
+            return ResponseEntity.notFound().build(); // Retorna 404 Not Found
+        }
+        return ResponseEntity.ok(estadisticasPaisServicio.getEstadisticas(id)); // Retorna 200 OK
     }
 
     // GET: Obtener un país por ID
     // Endpoint: GET /api/v1/paises/{id}
+    // Con If-None-Match igual al ETag actual se responde 304 sin cuerpo.
     @GetMapping("/{id}")
-    public ResponseEntity<Pais> getPaisById(@PathVariable("id") Long id) {
+    public ResponseEntity<Pais> getPaisById(@PathVariable("id") Long id, WebRequest webRequest) {
         logger.info("Recibida petición GET para obtener país con ID: {}.", id);
         Optional<Pais> pais = paisServicio.getPaisById(id);
         return pais.map(p -> {
             logger.info("País con ID {} encontrado.", id);
-            return ResponseEntity.ok(p); // Si el país existe, retorna 200 OK
+            String etag = ETags.dePais(p);
+            if (webRequest.checkNotModified(etag)) {
+                return null; // 304 Not Modified, sin serializar el cuerpo
+            }
+            return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(p); // Si el país existe, retorna 200 OK
         }).orElseGet(() -> {
             logger.warn("País con ID {} no encontrado.", id);
             return ResponseEntity.notFound().build(); // Si no, 404 Not Found
@@ -60,22 +149,58 @@ public class PaisController {
         logger.info("Recibida petición POST para crear un nuevo país.");
         Pais nuevoPais = paisServicio.createPais(pais);
         logger.info("País creado exitosamente con ID: {}.", nuevoPais.getId());
-        return new ResponseEntity<>(nuevoPais, HttpStatus.CREATED); // Retorna 201 Created
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.dePais(nuevoPais)).body(nuevoPais); // Retorna 201 Created
     }
 
     // PUT: Actualizar un país existente
     // Endpoint: PUT /api/v1/paises/{id}
+    // Con If-Match (el ETag recibido en el GET) solo se actualiza si nadie modificó el país entretanto.
     @PutMapping("/{id}")
-    public ResponseEntity<Pais> updatePais(@PathVariable("id") Long id, @RequestBody Pais pais) {
+    public ResponseEntity<Pais> updatePais(@PathVariable("id") Long id, @RequestBody Pais pais,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("Recibida petición PUT para actualizar país con ID: {}.", id);
         try {
-            Pais updatedPais = paisServicio.updatePais(id, pais);
+            Pais updatedPais = paisServicio.updatePais(id, pais, ETags.versionEsperada(ifMatch));
             logger.info("País con ID {} actualizado exitosamente.", id);
-            return ResponseEntity.ok(updatedPais); // Retorna 200 OK
-        } catch (RuntimeException e) {
-            // Asume que la excepción indica que no se encontró el país
+            return ResponseEntity.ok().eTag(ETags.dePais(updatedPais)).body(updatedPais); // Retorna 200 OK
+        } catch (VersionNoCoincideException e) {
+            logger.warn("Actualización de país con ID {} rechazada: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build(); // Retorna 412 Precondition Failed
+        } catch (OptimisticLockingFailureException e) {
+            // Otra petición modificó el país entre la lectura y la escritura
+            logger.warn("Conflicto de concurrencia al actualizar país con ID {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build(); // Retorna 409 Conflict
+        } catch (RecursoNoEncontradoException e) {
+            logger.error("Error al actualizar país con ID {}: {}", id, e.getMessage());
+            return ResponseEntity.notFound().build(); // Retorna 404 Not Found
+        } catch (DataIntegrityViolationException e) {
+            // Nombre repetido (rechazado por la restricción UNIQUE)
+            logger.error("Actualización de país con ID {} rechazada: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build(); // Retorna 400 Bad Request
+        }
+    }
+
+    // PATCH: Actualizar solo algunos campos de un país
+    // Endpoint: PATCH /api/v1/paises/{id}
+    // Se resuelve con una única sentencia UPDATE; If-Match (opcional) se aplica como condición de versión.
+    @PatchMapping("/{id}")
+    public ResponseEntity<Pais> patchPais(@PathVariable("id") Long id, @RequestBody PaisPatchDTO cambios,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        logger.info("Recibida petición PATCH para actualizar país con ID: {}.", id);
+        try {
+            Pais updatedPais = paisServicio.patchPais(id, cambios, ETags.versionEsperada(ifMatch));
+            logger.info("País con ID {} actualizado parcialmente.", id);
+            return ResponseEntity.ok().eTag(ETags.dePais(updatedPais)).body(updatedPais); // Retorna 200 OK
+        } catch (VersionNoCoincideException e) {
+            logger.warn("Actualización parcial de país con ID {} rechazada: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build(); // Retorna 412 Precondition Failed
+        } catch (RecursoNoEncontradoException e) {
             logger.error("Error al actualizar país con ID {}: {}", id, e.getMessage());
             return ResponseEntity.notFound().build(); // Retorna 404 Not Found
+        } catch (IllegalArgumentException e) {
+            // Nombre inválido o repetido (rechazado por la restricción UNIQUE)
+            logger.error("Actualización parcial de país con ID {} rechazada: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build(); // Retorna 400 Bad Request
         }
     }
 
@@ -88,12 +213,14 @@ public class PaisController {
             paisServicio.deletePais(id);
             logger.info("País con ID {} eliminado exitosamente.", id);
             return ResponseEntity.ok("País con ID " + id + " eliminado exitosamente."); // Retorna 200 OK
-        } catch (RuntimeException e) {
-            // Si el mensaje indica que hay personas asociadas, retorna 409 Conflict.
-            // Si no (ej. país no encontrado), retorna 404 Not Found.
-            HttpStatus status = e.getMessage().contains("asociadas") ? HttpStatus.CONFLICT : HttpStatus.NOT_FOUND;
-            logger.error("Error al eliminar país con ID {}. Causa: {}. Status HTTP: {}", id, e.getMessage(), status.value());
-            return new ResponseEntity<>(e.getMessage(), status);
+        } catch (PaisConPersonasException e) {
+            // El país tiene personas asociadas: retorna 409 Conflict.
+            logger.error("Error al eliminar país con ID {}. Causa: {}. Status HTTP: {}", id, e.getMessage(), HttpStatus.CONFLICT.value());
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+        } catch (RecursoNoEncontradoException e) {
+            // El país no existe: retorna 404 Not Found.
+            logger.error("Error al eliminar país con ID {}. Causa: {}. Status HTTP: {}", id, e.getMessage(), HttpStatus.NOT_FOUND.value());
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
     }
 }
@@ -0,0 +1,68 @@
+package com.Gleisk78.CRUD_backend.controller;
+
+import com.Gleisk78.CRUD_backend.dto.PaginaCursor;
+import com.Gleisk78.CRUD_backend.entity.Pais;
+import com.Gleisk78.CRUD_backend.service.PaisServicioReactivo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Lecturas de países no bloqueantes: mismas rutas y respuestas que PaisController bajo /api/v1/reactivo
+// (ver PersonaReactivaController).
+@CrossOrigin(maxAge = 3600, exposedHeaders = HttpHeaders.ETAG)
+@RestController
+@RequestMapping("/api/v1/reactivo/paises")
+public class PaisReactivoController {
+
+    private final PaisServicioReactivo paisServicioReactivo;
+
+    @Autowired
+    public PaisReactivoController(PaisServicioReactivo paisServicioReactivo) {
+        this.paisServicioReactivo = paisServicioReactivo;
+    }
+
+    // GET: Países paginados por cursor
+    // Endpoint: GET /api/v1/reactivo/paises?after={id_pais}&limit={N}
+    @GetMapping
+    public Mono<ResponseEntity<PaginaCursor<Pais>>> getAllPaises(@RequestParam(value = "after", required = false) Long after,
+                                                                 @RequestParam(value = "limit", required = false) Integer limit,
+                                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return paisServicioReactivo.getVersionListado()
+                .map(ETags::deColeccion)
+                .flatMap(etag -> {
+                    if (ETags.coincide(ifNoneMatch, etag)) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<PaginaCursor<Pais>>build()); // 304 sin cuerpo
+                    }
+                    return paisServicioReactivo.getPaisesPagina(after, limit)
+                            .map(pagina -> ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(pagina)); // Retorna 200 OK con la página de países
+                });
+    }
+
+    // GET: Todos los países como NDJSON
+    // Endpoint: GET /api/v1/reactivo/paises/stream
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Pais> streamPaises() {
+        return paisServicioReactivo.streamPaises();
+    }
+
+    // GET: Un país por ID
+    // Endpoint: GET /api/v1/reactivo/paises/{id}
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Pais>> getPaisById(@PathVariable("id") Long id,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return paisServicioReactivo.getPaisById(id)
+                .map(p -> {
+                    String etag = ETags.dePais(p);
+                    if (ETags.coincide(ifNoneMatch, etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<Pais>build(); // 304 sin cuerpo
+                    }
+                    return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(p); // Si el país existe, retorna 200 OK
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build()); // Si no, 404 Not Found
+    }
+}
@@ -0,0 +1,90 @@
+package com.Gleisk78.CRUD_backend.controller;
+
+import com.Gleisk78.CRUD_backend.dto.ParticionDTO;
+import com.Gleisk78.CRUD_backend.exception.RecursoNoEncontradoException;
+import com.Gleisk78.CRUD_backend.service.ParticionServicio;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.function.Function;
+
+// Administración de las particiones de personas (una por país, más la DEFAULT con el resto).
+// Las operaciones cambian el esquema de la BD: si la tabla está ocupada responden 503 (ManejadorErrores) en vez de
+// esperar detrás de otras sentencias.
+// Solo se publica con app.particiones.admin.habilitado=true: pensado para activarse en la instancia que hace el
+// mantenimiento y no en las que atienden la API pública.
+@RestController
+@ConditionalOnProperty(name = "app.particiones.admin.habilitado", havingValue = "true")
+@RequestMapping("/api/v1/admin/particiones")
+public class ParticionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParticionController.class);
+
+    private final ParticionServicio particionServicio;
+
+    @Autowired
+    public ParticionController(ParticionServicio particionServicio) {
+        this.particionServicio = particionServicio;
+        logger.info("ParticionController inicializado y listo para manejar peticiones.");
+    }
+
+    // GET: Particiones con su estado, filas estimadas y tamaño
+    // Endpoint: GET /api/v1/admin/particiones
+    @GetMapping
+    public ResponseEntity<List<ParticionDTO>> getParticiones() {
+        logger.info("Recibida petición GET para obtener las particiones de personas.");
+        return ResponseEntity.ok(particionServicio.getParticiones()); // Retorna 200 OK
+    }
+
+    // POST: Crear la partición de un país y mover a ella sus personas
+    // Endpoint: POST /api/v1/admin/particiones/{idPais}
+    @PostMapping("/{idPais}")
+    public ResponseEntity<ParticionDTO> crearParticion(@PathVariable("idPais") Long idPais) {
+        return operar("crear", idPais, particionServicio::crearParticion, HttpStatus.CREATED); // Retorna 201 Created
+    }
+
+    // POST: Desvincular la partición de un país (sus personas dejan de verse, sin borrarse)
+    // Endpoint: POST /api/v1/admin/particiones/{idPais}/desvincular
+    @PostMapping("/{idPais}/desvincular")
+    public ResponseEntity<ParticionDTO> desvincularParticion(@PathVariable("idPais") Long idPais) {
+        return operar("desvincular", idPais, particionServicio::desvincularParticion, HttpStatus.OK);
+    }
+
+    // POST: Volver a vincular una partición desvinculada o archivada
+    // Endpoint: POST /api/v1/admin/particiones/{idPais}/vincular
+    @PostMapping("/{idPais}/vincular")
+    public ResponseEntity<ParticionDTO> vincularParticion(@PathVariable("idPais") Long idPais) {
+        return operar("vincular", idPais, particionServicio::vincularParticion, HttpStatus.OK);
+    }
+
+    // POST: Mover la partición al esquema 'archivo'
+    // Endpoint: POST /api/v1/admin/particiones/{idPais}/archivar
+    @PostMapping("/{idPais}/archivar")
+    public ResponseEntity<ParticionDTO> archivarParticion(@PathVariable("idPais") Long idPais) {
+        return operar("archivar", idPais, particionServicio::archivarParticion, HttpStatus.OK);
+    }
+
+    private ResponseEntity<ParticionDTO> operar(String operacion, Long idPais, Function<Long, ParticionDTO> accion,
+                                                HttpStatus exito) {
+        logger.info("Recibida petición POST para {} la partición del país con ID: {}.", operacion, idPais);
+        try {
+            ParticionDTO particion = accion.apply(idPais);
+            logger.info("Partición del país {}: {} ({}).", idPais, particion.getEstado(), particion.getTabla());
+            return ResponseEntity.status(exito).body(particion);
+        } catch (RecursoNoEncontradoException e) {
+            logger.error("No se pudo {} la partición del país {}: {}", operacion, idPais, e.getMessage());
+            return ResponseEntity.notFound().build(); // Retorna 404 Not Found
+        } catch (IllegalStateException | DataIntegrityViolationException e) {
+            // Ya en ese estado, o PostgreSQL rechazó el cambio (por ejemplo, el país se eliminó)
+            logger.error("No se pudo {} la partición del país {}: {}", operacion, idPais, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build(); // Retorna 409 Conflict
+        }
+    }
+}
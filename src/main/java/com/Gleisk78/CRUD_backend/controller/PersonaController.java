@@ -1,18 +1,41 @@
 package com.Gleisk78.CRUD_backend.controller;
 
+import com.Gleisk78.CRUD_backend.config.FormatosRespuestaConfig;
+import com.Gleisk78.CRUD_backend.dto.PaginaCursor;
+import com.Gleisk78.CRUD_backend.dto.PersonaDTO;
+import com.Gleisk78.CRUD_backend.dto.PersonaPatchDTO;
+import com.Gleisk78.CRUD_backend.dto.ResultadoBusquedaPersona;
+import com.Gleisk78.CRUD_backend.dto.ResultadoImportacion;
+import com.Gleisk78.CRUD_backend.dto.ResultadoLote;
 import com.Gleisk78.CRUD_backend.entity.Persona;
+import com.Gleisk78.CRUD_backend.exception.RecursoNoEncontradoException;
+import com.Gleisk78.CRUD_backend.exception.VersionNoCoincideException;
+import com.Gleisk78.CRUD_backend.service.FormatoExportacion;
+import com.Gleisk78.CRUD_backend.service.ImportacionPersonasServicio;
 import com.Gleisk78.CRUD_backend.service.PersonaServicio;
+import com.Gleisk78.CRUD_backend.service.PublicadorCambios;
+import com.Gleisk78.CRUD_backend.service.VersionColecciones;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger; // Importamos la interfaz de logger
 import org.slf4j.LoggerFactory; // Importamos la fábrica para obtener el logger
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
-@CrossOrigin(maxAge = 3600) // Permite peticiones desde tu frontend (ej. Angular)
+@CrossOrigin(maxAge = 3600, exposedHeaders = HttpHeaders.ETAG) // Permite peticiones (y leer el ETag) desde tu frontend (ej. Angular)
 @RestController // Indica que es un controlador REST
 @RequestMapping("/api/v1/personas") // Prefijo de URL para todos los endpoints de Persona
 public class PersonaController {
@@ -21,32 +44,108 @@ public class PersonaController {
     private static final Logger logger = LoggerFactory.getLogger(PersonaController.class);
 
     private final PersonaServicio personaServicio; // Inyección de dependencia
+    private final ImportacionPersonasServicio importacionPersonasServicio;
+    private final PublicadorCambios publicadorCambios;
 
     @Autowired
-    public PersonaController(PersonaServicio personaServicio) {
+    public PersonaController(PersonaServicio personaServicio, ImportacionPersonasServicio importacionPersonasServicio,
+                             PublicadorCambios publicadorCambios) {
         this.personaServicio = personaServicio;
+        this.importacionPersonasServicio = importacionPersonasServicio;
+        this.publicadorCambios = publicadorCambios;
         logger.info("PersonaController inicializado y listo para manejar peticiones.");
     }
 
-    // GET: Obtener todas las personas
-    // Endpoint: GET /api/v1/personas
+    // GET: Obtener personas paginadas por cursor, opcionalmente solo las de un país
+    // Endpoint: GET /api/v1/personas?paisId={id_pais}&after={id_persona}&limit={N}
+    // 'after' es el 'siguienteCursor' de la página anterior; 'limit' se acota al máximo configurado en el servidor.
+    // El ETag es la versión del listado: con If-None-Match vigente se responde 304 sin consultar la base de datos.
     @GetMapping
-    public ResponseEntity<List<Persona>> getAllPersonas() {
-        logger.info("Recibida petición GET para obtener todas las personas.");
-        List<Persona> personas = personaServicio.getAllPersonas();
-        logger.debug("Se encontraron {} personas en la base de datos.", personas.size());
-        return ResponseEntity.ok(personas); // Retorna 200 OK con la lista de personas
+    public ResponseEntity<PaginaCursor<PersonaDTO>> getAllPersonas(@RequestParam(value = "paisId", required = false) Long paisId,
+                                                                   @RequestParam(value = "after", required = false) Long after,
+                                                                   @RequestParam(value = "limit", required = false) Integer limit,
+                                                                   WebRequest webRequest) {
+        logger.info("Recibida petición GET para obtener personas (paisId={}, after={}, limit={}).", paisId, after, limit);
+        String etag = ETags.deColeccion(personaServicio.getVersionListado());
+        if (webRequest.checkNotModified(etag)) {
+            logger.debug("Listado de personas sin cambios (ETag {}). Se responde 304.", etag);
+            return null; // Spring ya escribió el 304 Not Modified
+        }
+        PaginaCursor<PersonaDTO> pagina = personaServicio.getPersonasPagina(paisId, after, limit);
+        logger.debug("Se devuelven {} personas. Hay más: {}.", pagina.getItems().size(), pagina.isHayMas());
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(pagina); // Retorna 200 OK con la página de personas
+    }
+
+    // GET: Exportar todas las personas (con el nombre de su país) como NDJSON, Smile o CBOR
+    // Endpoint: GET /api/v1/personas/export   (Accept: application/x-jackson-smile o application/cbor-seq para binario)
+    // La respuesta se escribe en streaming mientras se leen las filas, sin cargar la tabla en memoria.
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, FormatosRespuestaConfig.SMILE_VALUE,
+            FormatosRespuestaConfig.CBOR_SEQ_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportPersonas(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        FormatoExportacion formato = formatoExportacion(accept);
+        logger.info("Recibida petición GET para exportar todas las personas en {}.", formato);
+        StreamingResponseBody cuerpo = salida -> {
+            long total = personaServicio.exportarPersonas(salida, formato);
+            logger.info("Exportación enviada al cliente: {} personas.", total);
+        };
+        MediaType tipo = switch (formato) {
+            case NDJSON -> MediaType.APPLICATION_NDJSON;
+            case SMILE -> FormatosRespuestaConfig.SMILE;
+            case CBOR -> FormatosRespuestaConfig.CBOR_SEQ;
+        };
+        return ResponseEntity.ok().contentType(tipo).varyBy(HttpHeaders.ACCEPT).body(cuerpo); // Retorna 200 OK en streaming
+    }
+
+    // GET: Feed de cambios de personas (Server-Sent Events)
+    // Endpoint: GET /api/v1/personas/changes   (Accept: text/event-stream)
+    // Cada evento trae {"tipo":"CREADO|ACTUALIZADO|ELIMINADO|RECARGA","id":..,"version":..}. Al reconectar, el
+    // navegador envía Last-Event-ID y recibe los eventos que se perdió; RECARGA indica que debe pedir el listado completo.
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> getPersonasChanges(@RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId) {
+        logger.info("Recibida suscripción al feed de cambios de personas (Last-Event-ID: {}).", ultimoEventoId);
+        try {
+            return ResponseEntity.ok(publicadorCambios.suscribir(VersionColecciones.PERSONAS, ultimoEventoId)); // Retorna 200 OK en streaming
+        } catch (IllegalArgumentException e) {
+            logger.error("Suscripción rechazada: {}", e.getMessage());
+            return ResponseEntity.badRequest().build(); // Retorna 400 Bad Request
+        }
+    }
+
+    // GET: Buscar personas por nombre (sin distinguir mayúsculas ni acentos, tolerante a errores de tipeo)
+    // Endpoint: GET /api/v1/personas/search?q={texto}&paisId={id}&edadMin={n}&edadMax={n}&after={cursor}&limit={N}
+    // Los resultados vienen ordenados por relevancia; 'after' es el 'siguienteCursor' de la página anterior.
+    @GetMapping("/search")
+    public ResponseEntity<PaginaCursor<ResultadoBusquedaPersona>> searchPersonas(@RequestParam("q") String q,
+                                                                                @RequestParam(value = "paisId", required = false) Long paisId,
+                                                                                @RequestParam(value = "edadMin", required = false) Integer edadMin,
+                                                                                @RequestParam(value = "edadMax", required = false) Integer edadMax,
+                                                                                @RequestParam(value = "after", required = false) Long after,
+                                                                                @RequestParam(value = "limit", required = false) Integer limit) {
+        logger.info("Recibida petición GET para buscar personas por '{}'.", q);
+        try {
+            PaginaCursor<ResultadoBusquedaPersona> pagina = personaServicio.buscarPersonas(q, paisId, edadMin, edadMax, after, limit);
+            logger.debug("Búsqueda '{}' con {} resultados en la página.", q, pagina.getItems().size());
+            return ResponseEntity.ok(pagina); // Retorna 200 OK con la página de resultados
+        } catch (IllegalArgumentException e) {
+            logger.error("Búsqueda rechazada: {}", e.getMessage());
+            return ResponseEntity.badRequest().build(); // Retorna 400 Bad Request
+        }
     }
 
     // GET: Obtener una persona por ID
     // Endpoint: GET /api/v1/personas/{id}
+    // Con If-None-Match igual al ETag actual se responde 304 sin cuerpo.
     @GetMapping("/{id}")
-    public ResponseEntity<Persona> getPersonaById(@PathVariable("id") Long id) {
+    public ResponseEntity<PersonaDTO> getPersonaById(@PathVariable("id") Long id, WebRequest webRequest) {
         logger.info("Recibida petición GET para obtener persona con ID: {}.", id);
-        Optional<Persona> persona = personaServicio.getPersonaById(id);
+        Optional<PersonaDTO> persona = personaServicio.getPersonaById(id);
         return persona.map(p -> {
             logger.info("Persona con ID {} encontrada.", id);
-            return ResponseEntity.ok(p); // Si la persona existe, retorna 200 OK
+            String etag = ETags.dePersona(p);
+            if (webRequest.checkNotModified(etag)) {
+                return null; // 304 Not Modified, sin serializar el cuerpo
+            }
+            return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(p); // Si la persona existe, retorna 200 OK
         }).orElseGet(() -> {
             logger.warn("Persona con ID {} no encontrada.", id);
             return ResponseEntity.notFound().build(); // Si no, 404 Not Found
@@ -56,27 +155,126 @@ public class PersonaController {
     // POST: Crear una nueva persona
     // Endpoint: POST /api/v1/personas
     @PostMapping
-    public ResponseEntity<Persona> createPersona(@RequestBody Persona persona) {
+    public ResponseEntity<PersonaDTO> createPersona(@RequestBody Persona persona) {
         logger.info("Recibida petición POST para crear una nueva persona.");
-        // @RequestBody mapea el JSON del cuerpo de la petición a un objeto Persona
-        Persona nuevaPersona = personaServicio.createPersona(persona);
-        logger.info("Persona creada exitosamente con ID: {}.", nuevaPersona.getId());
-        return new ResponseEntity<>(nuevaPersona, HttpStatus.CREATED); // Retorna 201 Created
+        try {
+            // @RequestBody mapea el JSON del cuerpo de la petición a un objeto Persona
+            Persona nuevaPersona = personaServicio.createPersona(persona);
+            logger.info("Persona creada exitosamente con ID: {}.", nuevaPersona.getId());
+            PersonaDTO dto = PersonaDTO.desde(nuevaPersona);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.dePersona(dto)).body(dto); // Retorna 201 Created
+        } catch (IllegalArgumentException e) {
+            // Sin país, con un país inexistente o con datos que rechaza la BD
+            logger.error("Creación de persona rechazada: {}", e.getMessage());
+            return ResponseEntity.badRequest().build(); // Retorna 400 Bad Request
+        }
+    }
+
+    // POST: Crear muchas personas en una sola petición
+    // Endpoint: POST /api/v1/personas/batch
+    // Cada elemento se reporta por separado: los inválidos no impiden que se creen los demás.
+    @PostMapping("/batch")
+    public ResponseEntity<ResultadoLote> createPersonasBatch(@RequestBody List<Persona> personas) {
+        logger.info("Recibida petición POST para crear {} personas por lotes.", personas.size());
+        try {
+            ResultadoLote resultado = personaServicio.crearPersonasEnLote(personas);
+            logger.info("Lote procesado: {} creadas, {} rechazadas.", resultado.getCreados(), resultado.getFallidos());
+            return ResponseEntity.ok(resultado); // Retorna 200 OK con el resultado de cada elemento
+        } catch (IllegalArgumentException e) {
+            // El lote completo se rechaza solo si excede el tamaño máximo permitido
+            logger.error("Lote rechazado: {}", e.getMessage());
+            return ResponseEntity.badRequest().build(); // Retorna 400 Bad Request
+        }
+    }
+
+    // POST: Importar personas desde un CSV (nombre,edad,pais; el país por ID o por nombre)
+    // Endpoint: POST /api/v1/personas/import?encabezado={true|false}   (Content-Type: text/csv)
+    // El archivo se carga en streaming con COPY de PostgreSQL; las filas inválidas se reportan sin detener la carga.
+    // Un CSV mal formado rechaza la importación completa (400, con el motivo en el campo error) y no inserta nada.
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ResultadoImportacion> importarPersonas(@RequestParam(value = "encabezado", defaultValue = "true") boolean encabezado,
+                                                                 HttpServletRequest request) throws IOException {
+        logger.info("Recibida petición POST para importar personas desde CSV ({} bytes).", request.getContentLengthLong());
+        try {
+            ResultadoImportacion resultado = importacionPersonasServicio.importar(request.getInputStream(), request.getContentLengthLong(), encabezado);
+            return ResponseEntity.ok(resultado); // Retorna 200 OK con el resumen y los rechazos
+        } catch (IllegalArgumentException e) {
+            logger.error("Importación rechazada: {}", e.getMessage());
+            // El motivo (por ejemplo, la línea del CSV mal formada) va en el campo error de la respuesta
+            ResultadoImportacion fallida = ResultadoImportacion.builder().estado("FALLIDA").error(e.getMessage()).build();
+            return ResponseEntity.badRequest().body(fallida); // Retorna 400 Bad Request con el motivo
+        }
+    }
+
+    // GET: Progreso de las importaciones en curso y de las últimas terminadas
+    // Endpoint: GET /api/v1/personas/import
+    @GetMapping("/import")
+    public ResponseEntity<List<ResultadoImportacion>> getImportaciones() {
+        return ResponseEntity.ok(importacionPersonasServicio.getImportaciones()); // Retorna 200 OK
+    }
+
+    // GET: Progreso (o resultado, con los rechazos) de una importación
+    // Endpoint: GET /api/v1/personas/import/{id}
+    @GetMapping("/import/{id}")
+    public ResponseEntity<ResultadoImportacion> getImportacion(@PathVariable("id") String id) {
+        Optional<ResultadoImportacion> importacion = importacionPersonasServicio.getImportacion(id);
+        if (importacion.isEmpty()) {
+            logger.warn("Importación {} no encontrada.", id);
+            return ResponseEntity.notFound().build(); // Retorna 404 Not Found
+        }
+        return ResponseEntity.ok(importacion.get()); // Retorna 200 OK
     }
 
     // PUT: Actualizar una persona existente
     // Endpoint: PUT /api/v1/personas/{id}
+    // Con If-Match (el ETag recibido en el GET) solo se actualiza si nadie modificó la persona entretanto.
     @PutMapping("/{id}")
-    public ResponseEntity<Persona> updatePersona(@PathVariable("id") Long id, @RequestBody Persona persona) {
+    public ResponseEntity<PersonaDTO> updatePersona(@PathVariable("id") Long id, @RequestBody Persona persona,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("Recibida petición PUT para actualizar persona con ID: {}.", id);
         try {
-            Persona updatedPersona = personaServicio.updatePersona(id, persona);
+            Persona updatedPersona = personaServicio.updatePersona(id, persona, ETags.versionEsperada(ifMatch));
             logger.info("Persona con ID {} actualizada exitosamente.", id);
-            return ResponseEntity.ok(updatedPersona); // Retorna 200 OK
-        } catch (RuntimeException e) {
-            // Asume que la excepción indica que no se encontró la persona
+            PersonaDTO dto = PersonaDTO.desde(updatedPersona);
+            return ResponseEntity.ok().eTag(ETags.dePersona(dto)).body(dto); // Retorna 200 OK
+        } catch (VersionNoCoincideException e) {
+            logger.warn("Actualización de persona con ID {} rechazada: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build(); // Retorna 412 Precondition Failed
+        } catch (OptimisticLockingFailureException e) {
+            // Otra petición modificó la persona entre la lectura y la escritura
+            logger.warn("Conflicto de concurrencia al actualizar persona con ID {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build(); // Retorna 409 Conflict
+        } catch (RecursoNoEncontradoException e) {
+            logger.error("Error al actualizar persona con ID {}: {}", id, e.getMessage());
+            return ResponseEntity.notFound().build(); // Retorna 404 Not Found
+        } catch (IllegalArgumentException e) {
+            // Sin país, con un país inexistente o con datos que rechaza la BD
+            logger.error("Actualización de persona con ID {} rechazada: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build(); // Retorna 400 Bad Request
+        }
+    }
+
+    // PATCH: Actualizar solo algunos campos de una persona
+    // Endpoint: PATCH /api/v1/personas/{id}
+    // Se resuelve con una única sentencia UPDATE; If-Match (opcional) se aplica como condición de versión.
+    @PatchMapping("/{id}")
+    public ResponseEntity<PersonaDTO> patchPersona(@PathVariable("id") Long id, @RequestBody PersonaPatchDTO cambios,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        logger.info("Recibida petición PATCH para actualizar persona con ID: {}.", id);
+        try {
+            PersonaDTO dto = personaServicio.patchPersona(id, cambios, ETags.versionEsperada(ifMatch));
+            logger.info("Persona con ID {} actualizada parcialmente.", id);
+            return ResponseEntity.ok().eTag(ETags.dePersona(dto)).body(dto); // Retorna 200 OK
+        } catch (VersionNoCoincideException e) {
+            logger.warn("Actualización parcial de persona con ID {} rechazada: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build(); // Retorna 412 Precondition Failed
+        } catch (RecursoNoEncontradoException e) {
             logger.error("Error al actualizar persona con ID {}: {}", id, e.getMessage());
             return ResponseEntity.notFound().build(); // Retorna 404 Not Found
+        } catch (IllegalArgumentException e) {
+            // Datos inválidos o país inexistente (rechazado por la FK)
+            logger.error("Actualización parcial de persona con ID {} rechazada: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build(); // Retorna 400 Bad Request
         }
     }
 
@@ -89,10 +287,30 @@ public class PersonaController {
             personaServicio.deletePersona(id);
             logger.info("Persona con ID {} eliminada exitosamente.", id);
             return ResponseEntity.ok("Persona con ID " + id + " eliminada exitosamente."); // Retorna 200 OK
-        } catch (RuntimeException e) {
-            // Asume que la excepción indica que no se encontró la persona
+        } catch (RecursoNoEncontradoException e) {
             logger.error("Error al eliminar persona con ID {}: {}", id, e.getMessage());
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND); // Retorna 404 Not Found
         }
     }
+
+    // Formato de la exportación según Accept (respetando los valores q). Sin Accept, o con comodines, se usa NDJSON.
+    private static FormatoExportacion formatoExportacion(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return FormatoExportacion.NDJSON;
+        }
+        List<MediaType> aceptados = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        aceptados.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType aceptado : aceptados) {
+            if (aceptado.equalsTypeAndSubtype(FormatosRespuestaConfig.SMILE)) {
+                return FormatoExportacion.SMILE;
+            }
+            if (aceptado.equalsTypeAndSubtype(FormatosRespuestaConfig.CBOR_SEQ)) {
+                return FormatoExportacion.CBOR;
+            }
+            if (aceptado.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+                return FormatoExportacion.NDJSON;
+            }
+        }
+        return FormatoExportacion.NDJSON;
+    }
 }
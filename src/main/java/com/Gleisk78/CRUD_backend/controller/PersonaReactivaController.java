@@ -0,0 +1,95 @@
+package com.Gleisk78.CRUD_backend.controller;
+
+import com.Gleisk78.CRUD_backend.dto.PaginaCursor;
+import com.Gleisk78.CRUD_backend.dto.PersonaDTO;
+import com.Gleisk78.CRUD_backend.service.PersonaServicioReactivo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Lecturas de personas no bloqueantes: mismas rutas y respuestas que PersonaController bajo /api/v1/reactivo.
+// El hilo de Tomcat se libera al devolver el Mono/Flux; la respuesta se completa cuando llegan las filas de R2DBC.
+@CrossOrigin(maxAge = 3600, exposedHeaders = HttpHeaders.ETAG)
+@RestController
+@RequestMapping("/api/v1/reactivo/personas")
+public class PersonaReactivaController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersonaReactivaController.class);
+
+    private static final int LINEAS_POR_BLOQUE = 200;
+
+    private final PersonaServicioReactivo personaServicioReactivo;
+    private final ObjectWriter personaWriter;
+
+    @Autowired
+    public PersonaReactivaController(PersonaServicioReactivo personaServicioReactivo, ObjectMapper objectMapper) {
+        this.personaServicioReactivo = personaServicioReactivo;
+        this.personaWriter = objectMapper.writerFor(PersonaDTO.class);
+    }
+
+    // GET: Personas paginadas por cursor, opcionalmente solo las de un país
+    // Endpoint: GET /api/v1/reactivo/personas?paisId={id_pais}&after={id_persona}&limit={N}
+    // El ETag es la versión del listado y se compara antes de consultar: con If-None-Match vigente se responde 304.
+    @GetMapping
+    public Mono<ResponseEntity<PaginaCursor<PersonaDTO>>> getAllPersonas(@RequestParam(value = "paisId", required = false) Long paisId,
+                                                                         @RequestParam(value = "after", required = false) Long after,
+                                                                         @RequestParam(value = "limit", required = false) Integer limit,
+                                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return personaServicioReactivo.getVersionListado()
+                .map(ETags::deColeccion)
+                .flatMap(etag -> {
+                    if (ETags.coincide(ifNoneMatch, etag)) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<PaginaCursor<PersonaDTO>>build()); // 304 sin cuerpo
+                    }
+                    return personaServicioReactivo.getPersonasPagina(paisId, after, limit)
+                            .map(pagina -> ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(pagina)); // Retorna 200 OK con la página de personas
+                });
+    }
+
+    // GET: Todas las personas (o las de un país) como NDJSON
+    // Endpoint: GET /api/v1/reactivo/personas/stream?paisId={id_pais}
+    // Las filas se piden a la BD a medida que el cliente consume la respuesta. Se envían en bloques de líneas: Spring
+    // MVC vacía el buffer tras cada elemento del Flux, y hacerlo por persona multiplica las escrituras al socket.
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<String> streamPersonas(@RequestParam(value = "paisId", required = false) Long paisId) {
+        return personaServicioReactivo.streamPersonas(paisId)
+                .map(this::lineaNdjson)
+                .buffer(LINEAS_POR_BLOQUE)
+                .map(lineas -> String.join("", lineas))
+                .doOnError(e -> logger.error("Error en el streaming reactivo de personas: {}", e.getMessage()));
+    }
+
+    // GET: Una persona por ID
+    // Endpoint: GET /api/v1/reactivo/personas/{id}
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<PersonaDTO>> getPersonaById(@PathVariable("id") Long id,
+                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return personaServicioReactivo.getPersonaById(id)
+                .map(p -> {
+                    String etag = ETags.dePersona(p);
+                    if (ETags.coincide(ifNoneMatch, etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<PersonaDTO>build(); // 304 sin cuerpo
+                    }
+                    return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(p); // Si la persona existe, retorna 200 OK
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build()); // Si no, 404 Not Found
+    }
+
+    private String lineaNdjson(PersonaDTO persona) {
+        try {
+            return personaWriter.writeValueAsString(persona) + "\n";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la persona " + persona.getId(), e);
+        }
+    }
+}
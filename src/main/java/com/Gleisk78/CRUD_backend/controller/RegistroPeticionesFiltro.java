@@ -0,0 +1,53 @@
+package com.Gleisk78.CRUD_backend.controller;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Registro de peticiones muestreado: una línea (método, ruta, estado, duración) para una fracción de las peticiones
+// ('app.log-peticiones.muestreo', entre 0 y 1) y siempre para las que superan el umbral de lentitud.
+// En producción reemplaza a los logs INFO de controladores y servicios, que escriben varias líneas por petición.
+@Component
+public class RegistroPeticionesFiltro extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistroPeticionesFiltro.class);
+
+    private final double muestreo;
+    private final long umbralLentoNanos;
+
+    @Autowired
+    public RegistroPeticionesFiltro(@Value("${app.log-peticiones.muestreo:0}") double muestreo,
+                                    @Value("${app.log-peticiones.umbral-lento:1s}") Duration umbralLento) {
+        this.muestreo = muestreo;
+        this.umbralLentoNanos = umbralLento.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long inicio = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long duracion = System.nanoTime() - inicio;
+            if (duracion >= umbralLentoNanos) {
+                logger.warn("Petición lenta: {} {} -> {} en {} ms.", request.getMethod(), request.getRequestURI(),
+                        response.getStatus(), duracion / 1_000_000);
+            } else if (muestreo > 0 && ThreadLocalRandom.current().nextDouble() < muestreo) {
+                logger.info("{} {} -> {} en {} ms.", request.getMethod(), request.getRequestURI(),
+                        response.getStatus(), duracion / 1_000_000);
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.Gleisk78.CRUD_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Datos de un evento del feed de cambios. Solo identifica el cambio: quien necesite la entidad la pide con
+// GET /{id}, que se sirve desde la caché de segundo nivel.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CambioDTO {
+
+    private String tipo; // CREADO, ACTUALIZADO, ELIMINADO o RECARGA
+
+    private Long id; // ID de la persona o el país; null en RECARGA
+
+    private Long version; // Versión tras el cambio; coincide con la del ETag de GET /{id}
+}
@@ -0,0 +1,28 @@
+package com.Gleisk78.CRUD_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Métricas de una caché en memoria: aciertos, fallos, desalojos y ocupación.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EstadisticasCacheDTO {
+
+    private long aciertos;
+
+    private long fallos;
+
+    private long desalojos; // Entradas expulsadas por superar el máximo configurado
+
+    private int entradas; // Entradas actualmente en la caché
+
+    private int maxEntradas;
+
+    private boolean completa; // true si la caché contiene la tabla completa (permite respuestas negativas sin SQL)
+
+    private double tasaAciertos;
+}
@@ -0,0 +1,30 @@
+package com.Gleisk78.CRUD_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+// Estadísticas agregadas de las personas de un país.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EstadisticasPaisDTO {
+
+    private Long paisId;
+
+    private long poblacion; // Total de personas del país
+
+    private long sinEdad; // Personas sin edad registrada (no cuentan para mínimo, máximo ni promedio)
+
+    private Integer edadMinima; // null si ninguna persona tiene edad
+
+    private Integer edadMaxima;
+
+    private Double edadPromedio;
+
+    private Map<String, Long> histograma; // Personas por rango de edad de 10 años ("0-9", "10-19", ..., "100+")
+}
@@ -0,0 +1,25 @@
+package com.Gleisk78.CRUD_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Sobre de respuesta para listados paginados por cursor (keyset).
+// El cliente pide la siguiente página enviando 'siguienteCursor' en el parámetro 'after'.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaginaCursor<T> {
+
+    private List<T> items; // Elementos de la página actual, ordenados por ID ascendente
+
+    private int limite; // Límite efectivo aplicado por el servidor (ya acotado al máximo permitido)
+
+    private String siguienteCursor; // Cursor para pedir la página siguiente; null si no hay más resultados
+
+    private boolean hayMas; // true si existen más elementos después de esta página
+}
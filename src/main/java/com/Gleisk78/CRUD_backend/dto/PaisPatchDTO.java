@@ -0,0 +1,16 @@
+package com.Gleisk78.CRUD_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Cuerpo de PATCH /api/v1/paises/{id}: solo se modifican los campos presentes (los null se dejan como están).
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaisPatchDTO {
+
+    private String nombre;
+}
@@ -0,0 +1,24 @@
+package com.Gleisk78.CRUD_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Una partición de personas: la de un país (vinculada, desvinculada o archivada) o la DEFAULT.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ParticionDTO {
+
+    private String tabla; // Nombre calificado, p. ej. public.personas_p3 o archivo.personas_p3
+
+    private Long paisId; // null para la partición DEFAULT
+
+    private String estado; // VINCULADA, DESVINCULADA, ARCHIVADA o DEFAULT
+
+    private long filasEstimadas; // Estimación de PostgreSQL (pg_class.reltuples), sin recorrer la tabla
+
+    private long bytes; // Tamaño en disco con índices y TOAST
+}
@@ -0,0 +1,48 @@
+package com.Gleisk78.CRUD_backend.dto;
+
+import com.Gleisk78.CRUD_backend.entity.Persona;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Vista plana de una Persona con el nombre de su país. Es la representación de persona en todas las respuestas:
+// las consultas de lectura la construyen directamente (ver PersonaRepository) y las escrituras la arman desde la entidad.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PersonaDTO {
+
+    private Long id;
+
+    private String nombre;
+
+    private Integer edad;
+
+    private Long paisId;
+
+    private String paisNombre;
+
+    // Versión de la persona: el cliente la recibe para enviarla de vuelta en If-Match al actualizar.
+    private Long version;
+
+    // Versión del país: el nombre del país forma parte de la respuesta, así que renombrarlo también cambia el ETag.
+    @JsonIgnore
+    private Long paisVersion;
+
+    // Construye el DTO a partir de la entidad; el país debe estar cargado (no un proxy LAZY sin inicializar
+    // fuera de la transacción). Se usa para las respuestas de escritura, donde el país viene de la caché.
+    public static PersonaDTO desde(Persona persona) {
+        return PersonaDTO.builder()
+                .id(persona.getId())
+                .nombre(persona.getNombre())
+                .edad(persona.getEdad())
+                .paisId(persona.getPais() != null ? persona.getPais().getId() : null)
+                .paisNombre(persona.getPais() != null ? persona.getPais().getNombre() : null)
+                .version(persona.getVersion())
+                .paisVersion(persona.getPais() != null ? persona.getPais().getVersion() : null)
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.Gleisk78.CRUD_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Cuerpo de PATCH /api/v1/personas/{id}: solo se modifican los campos presentes (los null se dejan como están).
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PersonaPatchDTO {
+
+    private String nombre;
+
+    private Integer edad;
+
+    private Long paisId;
+}
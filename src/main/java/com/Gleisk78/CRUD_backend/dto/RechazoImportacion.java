@@ -0,0 +1,18 @@
+package com.Gleisk78.CRUD_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Fila del CSV que no se importó y por qué.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RechazoImportacion {
+
+    private long fila; // Número de fila de datos, empezando en 1 (sin contar el encabezado)
+
+    private String motivo;
+}
@@ -0,0 +1,19 @@
+package com.Gleisk78.CRUD_backend.dto;
+
+// Proyección de la búsqueda de personas por nombre: los datos de la persona y su país, más la relevancia.
+public interface ResultadoBusquedaPersona {
+
+    Long getId();
+
+    String getNombre();
+
+    Integer getEdad();
+
+    Long getPaisId();
+
+    String getPaisNombre();
+
+    Integer getCoincidencia(); // 0 = el nombre empieza por el texto, 1 = alguna palabra empieza por él, 2 = parecido
+
+    Double getPuntaje(); // Similitud por trigramas (0 a 1) entre el texto buscado y la palabra más parecida del nombre
+}
@@ -0,0 +1,39 @@
+package com.Gleisk78.CRUD_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+// Estado de una importación CSV: sirve tanto para consultar el progreso mientras corre como de resultado final.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultadoImportacion {
+
+    private String id;
+
+    private String estado; // COPIANDO, PROCESANDO, TERMINADA o FALLIDA
+
+    private long bytesLeidos;
+
+    private long bytesTotales; // Content-Length de la petición; -1 si se envió sin él (chunked)
+
+    private long filasLeidas; // Filas de datos recibidas (sin el encabezado)
+
+    private long filasInsertadas;
+
+    private long filasRechazadas;
+
+    private List<RechazoImportacion> rechazos; // Primeros rechazos, ordenados por fila (ver app.importacion.max-rechazos)
+
+    private String error; // Motivo si la importación completa falló
+
+    private Instant inicio;
+
+    private long duracionMs;
+}
@@ -0,0 +1,30 @@
+package com.Gleisk78.CRUD_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resultado individual de un elemento dentro de un lote.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultadoItemLote {
+
+    private int indice; // Posición del elemento en la petición (empezando en 0)
+
+    private boolean exito;
+
+    private Long id; // ID asignado si se creó correctamente
+
+    private String error; // Motivo del rechazo si no se creó
+
+    public static ResultadoItemLote exito(int indice, Long id) {
+        return new ResultadoItemLote(indice, true, id, null);
+    }
+
+    public static ResultadoItemLote error(int indice, String error) {
+        return new ResultadoItemLote(indice, false, null, error);
+    }
+}
@@ -0,0 +1,24 @@
+package com.Gleisk78.CRUD_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Respuesta de una creación por lotes: un resultado por cada elemento recibido, en el mismo orden.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultadoLote {
+
+    private int total; // Elementos recibidos
+
+    private int creados; // Elementos insertados correctamente
+
+    private int fallidos; // Elementos rechazados (ver 'error' en cada resultado)
+
+    private List<ResultadoItemLote> resultados;
+}
@@ -0,0 +1,20 @@
+package com.Gleisk78.CRUD_backend.dto;
+
+// Proyección del UPDATE ... RETURNING de PersonaRepository.patch: la fila ya modificada junto con el país y la edad
+// que tenía antes, necesarios para ajustar las estadísticas por país sin una lectura previa.
+public interface ResultadoPatchPersona {
+
+    Long getId();
+
+    String getNombre();
+
+    Integer getEdad();
+
+    Long getPaisId();
+
+    Long getVersion();
+
+    Long getPaisAnteriorId();
+
+    Integer getEdadAnterior();
+}
@@ -0,0 +1,50 @@
+package com.Gleisk78.CRUD_backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Evento de la tabla outbox: se escribe en la misma transacción que el cambio que describe (ver RegistroCambios)
+// y lo lee el publicador del feed de cambios.
+@Entity
+@Table(name = "eventos_cambios")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventoCambio {
+
+    @Id
+    // Identidad de a uno (sin bloques): el publicador avanza en orden de ID y un hueco significa una
+    // transacción todavía sin confirmar (ver PublicadorCambios).
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_evento")
+    private Long id;
+
+    @Column(name = "coleccion", nullable = false, length = 20) // 'personas' o 'paises' (VersionColecciones)
+    private String coleccion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false, length = 20)
+    private TipoCambio tipo;
+
+    @Column(name = "id_entidad") // Null en los eventos RECARGA
+    private Long entidadId;
+
+    @Column(name = "version") // Versión de la entidad tras el cambio (la última conocida si se eliminó)
+    private Long version;
+
+    @Column(name = "creado", nullable = false)
+    private Instant creado;
+}
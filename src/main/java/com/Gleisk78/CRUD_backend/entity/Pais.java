@@ -1,15 +1,20 @@
 package com.Gleisk78.CRUD_backend.entity;
 
+import com.Gleisk78.CRUD_backend.config.CacheSegundoNivelConfig;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "paises") // Mapea a la tabla 'paises' en tu BD
@@ -17,13 +22,25 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor // Genera constructor sin argumentos
 @AllArgsConstructor // Genera constructor con todos los argumentos
 @Builder // Permite construir objetos de forma fluida (ej. Pais.builder().nombre("Chile").build())
+// Caché de segundo nivel (READ_WRITE): las lecturas por ID no van a la BD mientras la entrada siga vigente.
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.PAISES)
 public class Pais {
 
     @Id // Marca esta columna como la clave primaria
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Generación automática de IDs por la BD (ej. AUTO_INCREMENT)
+    // IDs tomados de una secuencia en bloques de 50 (optimizador 'pooled'): Hibernate reserva un rango por cada
+    // llamada a nextval y puede agrupar los INSERT en lotes JDBC, cosa que IDENTITY desactiva.
+    // El INCREMENT BY de la secuencia en la BD debe coincidir con allocationSize.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "paises_seq")
+    @SequenceGenerator(name = "paises_seq", sequenceName = "paises_seq", allocationSize = 50)
     @Column(name = "id_pais") // Nombre exacto de la columna en la BD
     private Long id;
 
     @Column(name = "nombre", nullable = false, unique = true, length = 100) // Nombre de la columna, no nulo, único, longitud
     private String nombre;
+
+    // Versión para control de concurrencia optimista: Hibernate la incrementa en cada UPDATE y falla si otra
+    // transacción modificó la fila entre la lectura y la escritura. También se usa como ETag del país.
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
\ No newline at end of file
@@ -1,28 +1,46 @@
 package com.Gleisk78.CRUD_backend.entity;
 
+import com.Gleisk78.CRUD_backend.config.CacheSegundoNivelConfig;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn; // Para la clave foránea
 import jakarta.persistence.ManyToOne; // Para la relación Many-to-One
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.PartitionKey;
 
 @Entity
-@Table(name = "personas") // Mapea a la tabla 'personas' en tu BD
+@Table(name = "personas", // Mapea a la tabla 'personas' en tu BD
+        indexes = @Index(name = "idx_personas_id_pais", columnList = "id_pais")) // Búsquedas y verificaciones por país
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+// Caché de segundo nivel (READ_WRITE). La entrada guarda el id_pais de la relación, y el país se resuelve
+// desde la región de países: leer una persona con su país no ejecuta SQL si ambos están en caché.
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.PERSONAS)
 public class Persona {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia 'pooled' en bloques de 50 (ver Pais): necesaria para que los INSERT se envíen en lotes JDBC.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "personas_seq")
+    @SequenceGenerator(name = "personas_seq", sequenceName = "personas_seq", allocationSize = 50)
     @Column(name = "id_persona") // Nombre exacto de la columna en la BD
     private Long id;
 
@@ -33,8 +51,29 @@ public class Persona {
     private Integer edad;
 
     // Relación Many-to-One con la entidad Pais
-    @ManyToOne // Muchas Personas pueden pertenecer a Un solo País
+    // Muchas Personas pueden pertenecer a Un solo País. LAZY: cargar o escribir una persona no arrastra su país;
+    // las lecturas que necesitan el nombre del país lo traen con un JOIN en la misma consulta (ver PersonaDTO).
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_pais", nullable = false) // 'id_pais' es la columna FK en la tabla 'personas'
     // nullable = false significa que una persona SIEMPRE debe tener un país
     private Pais pais; // La clave foránea se mapea a un objeto Pais
+
+    // Copia de solo lectura de id_pais (la columna la escribe 'pais'). Es la clave de partición de personas (ver V7):
+    // con @PartitionKey, Hibernate la agrega al WHERE de sus UPDATE y DELETE con el valor leído de la BD, y
+    // PostgreSQL modifica una sola partición en vez de buscar la fila en todas. Se sincroniza antes de cada escritura.
+    @PartitionKey
+    @Column(name = "id_pais", insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private Long paisId;
+
+    // Versión para control de concurrencia optimista (ver Pais); forma parte del ETag de la persona.
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @PrePersist
+    @PreUpdate
+    void sincronizarPaisId() {
+        paisId = pais != null ? pais.getId() : null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.Gleisk78.CRUD_backend.entity;
+
+// Tipo de un evento del feed de cambios.
+public enum TipoCambio {
+    CREADO,
+    ACTUALIZADO,
+    ELIMINADO,
+    // La colección cambió en bloque (p. ej. una importación CSV): el cliente debe volver a cargar el listado.
+    RECARGA
+}
@@ -0,0 +1,29 @@
+package com.Gleisk78.CRUD_backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+// Fila de la tabla ubicaciones_personas: el país (la partición) de cada persona. La mantienen los triggers de
+// personas (V10__ubicaciones_personas.sql); la aplicación solo la lee, para buscar personas por ID sin recorrer
+// todas las particiones (ver PersonaRepository.findByIdEnSuParticion).
+@Entity
+@Immutable
+@Table(name = "ubicaciones_personas")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UbicacionPersona {
+
+    @Id
+    @Column(name = "id_persona")
+    private Long id;
+
+    @Column(name = "id_pais", nullable = false)
+    private Long paisId;
+}
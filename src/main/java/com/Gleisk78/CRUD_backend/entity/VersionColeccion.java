@@ -0,0 +1,46 @@
+package com.Gleisk78.CRUD_backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+// Fila de la tabla versiones_colecciones. VersionColecciones la lee y la incrementa con JDBC; la entidad
+// documenta la tabla y permite validarla (y crearla en los tests) con Hibernate.
+@Entity
+@Table(name = "versiones_colecciones")
+@IdClass(VersionColeccion.Clave.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionColeccion {
+
+    @Id
+    @Column(name = "coleccion", length = 20) // 'personas' o 'paises' (VersionColecciones)
+    private String coleccion;
+
+    @Id
+    @Column(name = "ranura") // Una de las VersionColecciones.RANURAS filas de la colección
+    private Short ranura;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "modificado", nullable = false) // Último incremento, para la ventana de las réplicas
+    private Instant modificado;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+        private String coleccion;
+        private Short ranura;
+    }
+}
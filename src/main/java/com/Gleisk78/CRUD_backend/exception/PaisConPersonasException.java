@@ -0,0 +1,9 @@
+package com.Gleisk78.CRUD_backend.exception;
+
+// Se lanza al intentar eliminar un país que todavía tiene personas asociadas. Se traduce a 409 Conflict.
+public class PaisConPersonasException extends RuntimeException {
+
+    public PaisConPersonasException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,9 @@
+package com.Gleisk78.CRUD_backend.exception;
+
+// Se lanza cuando la entidad pedida (persona, país) no existe. Los controladores la traducen a 404 Not Found.
+public class RecursoNoEncontradoException extends RuntimeException {
+
+    public RecursoNoEncontradoException(String mensaje) {
+        super(mensaje);
+    }
+}
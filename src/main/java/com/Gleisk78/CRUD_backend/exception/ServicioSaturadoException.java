@@ -0,0 +1,9 @@
+package com.Gleisk78.CRUD_backend.exception;
+
+// Se lanza cuando una petición esperó demasiado por un permiso de acceso a la base de datos. Se traduce a 503.
+public class ServicioSaturadoException extends RuntimeException {
+
+    public ServicioSaturadoException(String mensaje) {
+        super(mensaje);
+    }
+}
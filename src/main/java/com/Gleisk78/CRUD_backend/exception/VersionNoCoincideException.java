@@ -0,0 +1,9 @@
+package com.Gleisk78.CRUD_backend.exception;
+
+// Se lanza cuando la versión enviada en If-Match ya no es la actual del recurso. Se traduce a 412 Precondition Failed.
+public class VersionNoCoincideException extends RuntimeException {
+
+    public VersionNoCoincideException(String mensaje) {
+        super(mensaje);
+    }
+}
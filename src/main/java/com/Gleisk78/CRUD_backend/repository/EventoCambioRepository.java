@@ -0,0 +1,37 @@
+package com.Gleisk78.CRUD_backend.repository;
+
+import com.Gleisk78.CRUD_backend.entity.EventoCambio;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface EventoCambioRepository extends JpaRepository<EventoCambio, Long> {
+
+    // Eventos posteriores al cursor del publicador, en orden (usa la PK).
+    List<EventoCambio> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Reenvío a un cliente que se reconecta con Last-Event-ID: eventos de su colección entre su cursor y el
+    // del publicador.
+    List<EventoCambio> findByColeccionAndIdGreaterThanAndIdLessThanEqualOrderByIdAsc(String coleccion, Long desde,
+                                                                                      Long hasta, Limit limit);
+
+    @Query("select coalesce(max(e.id), 0) from EventoCambio e")
+    long findUltimoId();
+
+    // ID del evento más antiguo conservado (0 si no hay eventos).
+    @Query("select coalesce(min(e.id), 0) from EventoCambio e")
+    long findPrimerId();
+
+    @Transactional
+    @Modifying
+    @Query("delete from EventoCambio e where e.creado < :limite")
+    int deleteAnterioresA(@Param("limite") Instant limite);
+}
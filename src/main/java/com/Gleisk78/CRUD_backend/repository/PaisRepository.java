@@ -1,10 +1,62 @@
 package com.Gleisk78.CRUD_backend.repository;
 
+import com.Gleisk78.CRUD_backend.config.CacheSegundoNivelConfig;
 import com.Gleisk78.CRUD_backend.entity.Pais; // Importa la entidad Pais
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository; // Usar JpaRepository para más métodos útiles
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface PaisRepository extends JpaRepository<Pais, Long> {
     // JpaRepository ya te da métodos como findById, findAll, save, deleteById para Pais
-}
\ No newline at end of file
+
+    // Listado completo de países en la caché de consultas (se invalida con cualquier escritura en paises).
+    @Override
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheSegundoNivelConfig.CONSULTAS_PAISES)})
+    List<Pais> findAll();
+
+    // Paginación por cursor (keyset): países con ID mayor al cursor, ordenados por la clave primaria.
+    List<Pais> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Países existentes entre los IDs dados, bloqueados con FOR SHARE hasta el fin de la transacción: nadie puede
+    // eliminarlos mientras tanto, así que las personas que los referencian no fallarán por la FK al insertarse.
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select p from Pais p where p.id in :ids")
+    List<Pais> bloquearPorIds(@Param("ids") Collection<Long> ids);
+
+    // Búsqueda por nombre exacto (la columna es única).
+    Optional<Pais> findByNombre(String nombre);
+
+    // Elimina el país solo si no tiene personas asociadas, en una única sentencia.
+    // Devuelve 1 si se eliminó y 0 si no existe o si todavía tiene personas (el servicio distingue ambos casos).
+    // Declarar la tabla afectada limita la invalidación de la caché de segundo nivel a los países (sin el hint,
+    // Hibernate vacía todas las regiones ante un DELETE nativo).
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "paises"))
+    @Query(value = "DELETE FROM paises WHERE id_pais = :id " +
+            "AND NOT EXISTS (SELECT 1 FROM personas WHERE id_pais = :id)", nativeQuery = true)
+    int deleteByIdSinPersonas(@Param("id") Long id);
+
+    // Actualización parcial en una sola sentencia (ver PersonaRepository.patch, también en cuanto a la caché de
+    // segundo nivel). Un nombre repetido lo rechaza la restricción UNIQUE. Devuelve el país ya modificado, o vacío si no existe o la versión no coincide.
+    @Query(value = "UPDATE paises SET " +
+            "  nombre = COALESCE(CAST(:nombre AS VARCHAR), nombre), " +
+            "  version = version + 1 " +
+            "WHERE id_pais = :id " +
+            "AND (CAST(:version AS BIGINT) IS NULL OR version = CAST(:version AS BIGINT)) " +
+            "RETURNING id_pais, nombre, version", nativeQuery = true)
+    Optional<Pais> patch(@Param("id") Long id, @Param("nombre") String nombre, @Param("version") Long version);
+}
@@ -1,15 +1,118 @@
 package com.Gleisk78.CRUD_backend.repository;
 
+import com.Gleisk78.CRUD_backend.config.CacheSegundoNivelConfig;
+import com.Gleisk78.CRUD_backend.dto.PersonaDTO;
+import com.Gleisk78.CRUD_backend.dto.ResultadoBusquedaPersona;
+import com.Gleisk78.CRUD_backend.dto.ResultadoPatchPersona;
 import com.Gleisk78.CRUD_backend.entity.Persona;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List; // Necesario para el método findByPaisId
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PersonaRepository extends JpaRepository<Persona, Long> {
 
-    // Método personalizado: Spring Data JPA lo implementa automáticamente
-    // Busca todas las personas que tienen un determinado ID de país
-    List<Persona> findByPaisId(Long paisId);
-}
\ No newline at end of file
+    // Las lecturas devuelven PersonaDTO armados directamente en la consulta (constructor expression):
+    // un único SELECT con JOIN a paises, sin entidades administradas ni consultas extra por cada país.
+
+    // Paginación por cursor (keyset): personas con ID mayor al cursor, ordenadas por la clave primaria.
+    // Usa el índice de la PK, así que el costo no crece con la profundidad de la página (a diferencia de OFFSET).
+    @Query("select new com.Gleisk78.CRUD_backend.dto.PersonaDTO(p.id, p.nombre, p.edad, pa.id, pa.nombre, p.version, pa.version) " +
+            "from Persona p join p.pais pa where p.id > :after order by p.id")
+    List<PersonaDTO> findPagina(@Param("after") Long after, Limit limit);
+
+    // Personas de un país, paginadas por cursor (usa el índice de personas.id_pais). El filtro va sobre
+    // personas.id_pais y no sobre paises para que PostgreSQL lea solo la partición del país (ver V7).
+    // Resultado en la caché de consultas: Hibernate lo invalida en cuanto se escribe en personas o paises.
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheSegundoNivelConfig.CONSULTAS_PERSONAS)})
+    @Query("select new com.Gleisk78.CRUD_backend.dto.PersonaDTO(p.id, p.nombre, p.edad, pa.id, pa.nombre, p.version, pa.version) " +
+            "from Persona p join p.pais pa where p.pais.id = :paisId and p.id > :after order by p.id")
+    List<PersonaDTO> findByPaisId(@Param("paisId") Long paisId, @Param("after") Long after, Limit limit);
+
+    // Por ID, en una sola consulta que lee solo la partición de la persona: el país sale de ubicaciones_personas
+    // (V10, una búsqueda en su clave primaria) y PostgreSQL descarta las demás particiones al ejecutar.
+    @Query("select p from Persona p where p.id = :id " +
+            "and p.paisId = (select u.paisId from UbicacionPersona u where u.id = :id)")
+    Optional<Persona> findByIdEnSuParticion(@Param("id") Long id);
+
+    @Query("select count(p) > 0 from Persona p where p.id = :id " +
+            "and p.paisId = (select u.paisId from UbicacionPersona u where u.id = :id)")
+    boolean existsByIdEnSuParticion(@Param("id") Long id);
+
+    // Recorre todas las personas con su país usando un cursor del lado del servidor.
+    // El fetch size hace que el driver de PostgreSQL traiga las filas por bloques en vez de cargar todo el resultado,
+    // pero solo funciona dentro de una transacción (autocommit desactivado). Al ser DTOs, Hibernate no los guarda
+    // en el contexto de persistencia y el uso de memoria no crece con el número de filas.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.Gleisk78.CRUD_backend.dto.PersonaDTO(p.id, p.nombre, p.edad, pa.id, pa.nombre, p.version, pa.version) " +
+            "from Persona p join p.pais pa order by p.id")
+    Stream<PersonaDTO> streamAllDto();
+
+    // Búsqueda de personas por nombre, sin distinguir mayúsculas ni acentos (normalizar_nombre = lower + unaccent).
+    // Coincide si el nombre empieza por el texto, si alguna de sus palabras empieza por él, o si alguna palabra
+    // se le parece lo suficiente (operador <% de pg_trgm, tolera errores de tipeo). Las tres condiciones usan el
+    // índice GIN de trigramas sobre normalizar_nombre(nombre). Los resultados se ordenan por tipo de coincidencia
+    // y luego por similitud. 'texto' debe venir con los comodines de LIKE ya escapados.
+    // El timeout acota la latencia si el texto es muy poco selectivo.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_TIMEOUT, value = "2"))
+    @Query(value = "SELECT p.id_persona AS \"id\", p.nombre AS \"nombre\", p.edad AS \"edad\", " +
+            "pa.id_pais AS \"paisId\", pa.nombre AS \"paisNombre\", " +
+            "CASE WHEN normalizar_nombre(p.nombre) LIKE normalizar_nombre(:texto) || '%' THEN 0 " +
+            "     WHEN normalizar_nombre(p.nombre) LIKE '% ' || normalizar_nombre(:texto) || '%' THEN 1 " +
+            "     ELSE 2 END AS \"coincidencia\", " +
+            "CAST(word_similarity(normalizar_nombre(:texto), normalizar_nombre(p.nombre)) AS DOUBLE PRECISION) AS \"puntaje\" " +
+            "FROM personas p JOIN paises pa ON pa.id_pais = p.id_pais " +
+            "WHERE (normalizar_nombre(p.nombre) LIKE normalizar_nombre(:texto) || '%' " +
+            "       OR normalizar_nombre(p.nombre) LIKE '% ' || normalizar_nombre(:texto) || '%' " +
+            "       OR normalizar_nombre(:texto) <% normalizar_nombre(p.nombre)) " +
+            "AND (:paisId = 0 OR p.id_pais = :paisId) " +
+            "AND (:filtrarEdad = FALSE OR p.edad BETWEEN :edadMin AND :edadMax) " +
+            "ORDER BY \"coincidencia\", \"puntaje\" DESC, p.id_persona " +
+            "LIMIT :limite OFFSET :desplazamiento", nativeQuery = true)
+    List<ResultadoBusquedaPersona> buscarPorNombre(@Param("texto") String texto,
+                                                   @Param("paisId") long paisId,
+                                                   @Param("filtrarEdad") boolean filtrarEdad,
+                                                   @Param("edadMin") int edadMin,
+                                                   @Param("edadMax") int edadMax,
+                                                   @Param("limite") int limite,
+                                                   @Param("desplazamiento") int desplazamiento);
+
+    // Actualización parcial en una sola sentencia: los parámetros null conservan el valor actual y la versión
+    // se incrementa. Si 'version' no es null, solo se actualiza si coincide (vacío si no). La CTE bloquea la fila
+    // (FOR UPDATE) para devolver el país y la edad anteriores consistentes con la fila modificada.
+    // El país actual de la persona sale de ubicaciones_personas dentro de la misma sentencia: PostgreSQL busca,
+    // bloquea y modifica una sola partición. El UPDATE repite 'id_persona = :id' para buscar la fila por índice: con
+    // solo el JOIN a la CTE, PostgreSQL puede recorrer la partición entera.
+    // Un id_pais inexistente lo rechaza la FK. No es @Modifying porque devuelve filas (RETURNING); debe
+    // ejecutarse dentro de una transacción de escritura, y la caché de segundo nivel se desaloja a mano
+    // (CacheSegundoNivel) porque Hibernate no sabe que la consulta modifica la tabla.
+    @Query(value = "WITH anterior AS (" +
+            "  SELECT id_persona, id_pais, edad FROM personas WHERE id_persona = :id " +
+            "  AND id_pais = (SELECT u.id_pais FROM ubicaciones_personas u WHERE u.id_persona = :id) FOR UPDATE) " +
+            "UPDATE personas p SET " +
+            "  nombre = COALESCE(CAST(:nombre AS VARCHAR), p.nombre), " +
+            "  edad = COALESCE(CAST(:edad AS INTEGER), p.edad), " +
+            "  id_pais = COALESCE(CAST(:paisId AS BIGINT), p.id_pais), " +
+            "  version = p.version + 1 " +
+            "FROM anterior a " +
+            "WHERE p.id_persona = :id AND p.id_persona = a.id_persona " +
+            "AND p.id_pais = (SELECT u.id_pais FROM ubicaciones_personas u WHERE u.id_persona = :id) " +
+            "AND (CAST(:version AS BIGINT) IS NULL OR p.version = CAST(:version AS BIGINT)) " +
+            "RETURNING p.id_persona AS \"id\", p.nombre AS \"nombre\", p.edad AS \"edad\", p.id_pais AS \"paisId\", " +
+            "p.version AS \"version\", a.id_pais AS \"paisAnteriorId\", a.edad AS \"edadAnterior\"", nativeQuery = true)
+    Optional<ResultadoPatchPersona> patch(@Param("id") Long id,
+                                          @Param("nombre") String nombre,
+                                          @Param("edad") Integer edad,
+                                          @Param("paisId") Long paisId,
+                                          @Param("version") Long version);
+}
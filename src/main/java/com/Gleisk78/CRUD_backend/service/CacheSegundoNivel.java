@@ -0,0 +1,122 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.config.CacheSegundoNivelConfig;
+import com.Gleisk78.CRUD_backend.config.ContextoLectura;
+import com.Gleisk78.CRUD_backend.entity.EventoCambio;
+import com.Gleisk78.CRUD_backend.entity.Pais;
+import com.Gleisk78.CRUD_backend.entity.Persona;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Desalojo manual de la caché de segundo nivel para las escrituras que Hibernate no ve: los PATCH de una sola
+// sentencia son consultas nativas con RETURNING, que Hibernate trata como lecturas y no invalidan nada, y la
+// importación CSV escribe con COPY directamente sobre la conexión JDBC.
+// Las escrituras hechas con entidades (save, saveAndFlush, delete) las mantiene Hibernate por su cuenta.
+// La caché es local a cada instancia: los cambios hechos por las demás llegan por el feed de cambios
+// (PublicadorCambios llama a desalojarPorEvento con cada evento de la tabla outbox).
+@Component
+public class CacheSegundoNivel {
+
+    private final Cache cache;
+    private final EntityManager entityManager; // Sesión de la transacción en curso
+    private final boolean replicasHabilitadas;
+
+    @Autowired
+    public CacheSegundoNivel(EntityManagerFactory entityManagerFactory, EntityManager entityManager,
+                             @Value("${app.replicas.habilitado:false}") boolean replicasHabilitadas) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.entityManager = entityManager;
+        this.replicasHabilitadas = replicasHabilitadas;
+    }
+
+    // Con réplicas, una transacción de solo lectura puede atenderse desde una réplica atrasada (EnrutadorDataSource).
+    // Entonces la sesión lee de la caché pero no guarda en ella lo que carga (CacheMode.GET): una copia atrasada se
+    // seguiría sirviendo después de que la réplica se pusiera al día. Si la lectura va a la primaria (sin réplicas, o
+    // tras una escritura del mismo cliente) la caché se llena como siempre. Debe llamarse dentro de la transacción.
+    public void noLlenarDesdeReplicas() {
+        if (replicasHabilitadas && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ContextoLectura.primariaForzada()) {
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.GET);
+        }
+    }
+
+    // Si la persona está en la caché, leerla por ID no ejecuta SQL.
+    public boolean contienePersona(Long id) {
+        return cache.containsEntity(Persona.class, id);
+    }
+
+    // La persona cambió: su entrada y los listados de personas cacheados dejan de valer.
+    public void desalojarPersona(Long id) {
+        desalojar(() -> {
+            cache.evictEntityData(Persona.class, id);
+            cache.evictQueryRegion(CacheSegundoNivelConfig.CONSULTAS_PERSONAS);
+        });
+    }
+
+    // Se agregaron personas por fuera de Hibernate: solo los listados cacheados quedan desactualizados.
+    public void desalojarListadosPersonas() {
+        desalojar(() -> cache.evictQueryRegion(CacheSegundoNivelConfig.CONSULTAS_PERSONAS));
+    }
+
+    // Se quitaron o devolvieron personas en bloque (partición desvinculada o vinculada): todas las entradas de
+    // personas y sus listados dejan de valer.
+    public void desalojarPersonas() {
+        desalojar(() -> {
+            cache.evictEntityData(Persona.class);
+            cache.evictQueryRegion(CacheSegundoNivelConfig.CONSULTAS_PERSONAS);
+        });
+    }
+
+    // El país cambió: también los listados de personas, que incluyen el nombre del país.
+    public void desalojarPais(Long id) {
+        desalojar(() -> {
+            cache.evictEntityData(Pais.class, id);
+            cache.evictQueryRegion(CacheSegundoNivelConfig.CONSULTAS_PAISES);
+            cache.evictQueryRegion(CacheSegundoNivelConfig.CONSULTAS_PERSONAS);
+        });
+    }
+
+    // Desalojo a partir de un evento del feed de cambios, confirmado en esta o en otra instancia. Un evento sin ID
+    // (RECARGA) invalida la colección entera.
+    public void desalojarPorEvento(EventoCambio evento) {
+        boolean personas = VersionColecciones.PERSONAS.equals(evento.getColeccion());
+        if (evento.getEntidadId() != null) {
+            if (personas) {
+                desalojarPersona(evento.getEntidadId());
+            } else {
+                desalojarPais(evento.getEntidadId());
+            }
+        } else if (personas) {
+            desalojarPersonas();
+        } else {
+            desalojar(() -> {
+                cache.evictEntityData(Pais.class);
+                cache.evictQueryRegion(CacheSegundoNivelConfig.CONSULTAS_PAISES);
+                cache.evictQueryRegion(CacheSegundoNivelConfig.CONSULTAS_PERSONAS);
+            });
+        }
+    }
+
+    // Se desaloja en el momento y otra vez al terminar la transacción: una lectura concurrente que volvió a cachear
+    // la fila anterior antes del commit no sobrevive.
+    private void desalojar(Runnable desalojo) {
+        desalojo.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int estado) {
+                    desalojo.run();
+                }
+            });
+        }
+    }
+}
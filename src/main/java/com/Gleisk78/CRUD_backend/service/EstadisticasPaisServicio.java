@@ -0,0 +1,19 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.dto.EstadisticasPaisDTO;
+
+import java.util.List;
+
+public interface EstadisticasPaisServicio {
+
+    EstadisticasPaisDTO getEstadisticas(Long paisId);
+
+    List<EstadisticasPaisDTO> getEstadisticas(List<Long> paisIds);
+
+    // Recalcula las estadísticas contando personas. Las escrituras las mantienen al día solas (triggers de
+    // personas), así que solo hace falta tras cambios que no pasan por ellos.
+    void reconstruir();
+
+    // Solo las de un país (tras mover, desvincular o archivar su partición).
+    void reconstruir(Long paisId);
+}
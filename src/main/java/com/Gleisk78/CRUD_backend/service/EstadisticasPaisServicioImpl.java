@@ -0,0 +1,186 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.dto.EstadisticasPaisDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Estadísticas por país a partir de la tabla estadisticas_pais, que los triggers de personas mantienen en la misma
+// transacción que cada escritura (ver V8__estadisticas_pais.sql). Las consultas suman unas pocas filas por país y
+// edad, sin recorrer personas, y valen para todas las instancias de la aplicación: no hay contadores en memoria que
+// puedan desviarse.
+@Service
+public class EstadisticasPaisServicioImpl implements EstadisticasPaisServicio {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstadisticasPaisServicioImpl.class);
+
+    // estadisticas_pais guarda la edad exacta, así que el mínimo, el máximo y el promedio son exactos para cualquier
+    // edad (la API y la importación CSV no acotan el valor). Solo el histograma agrupa: las edades negativas van al
+    // primer rango y las de 100 o más al último.
+    private static final int ANCHO_RANGO = 10;
+    private static final int ULTIMO_RANGO = 100; // Desde aquí todo va al rango "100+"
+
+    private static final String SUMAR = "SELECT id_pais, edad, sum(total) FROM estadisticas_pais " +
+            "WHERE id_pais = ANY (?) GROUP BY id_pais, edad";
+
+    // Las escrituras en personas agregan filas a estadisticas_pais con un bloqueo ROW EXCLUSIVE que dura hasta su
+    // commit. EXCLUSIVE espera a que terminen las que están en curso y frena a las nuevas hasta el fin de la
+    // reconstrucción (las lecturas siguen): el conteo y el reemplazo ven exactamente las mismas personas.
+    // personas se bloquea antes, en el mismo orden que las escrituras y el mantenimiento de particiones.
+    private static final String BLOQUEAR_PERSONAS = "LOCK TABLE personas IN ACCESS SHARE MODE";
+    private static final String BLOQUEAR = "LOCK TABLE estadisticas_pais IN EXCLUSIVE MODE";
+
+    // Reemplaza las filas de cada (país, edad) por una sola con su suma. Las filas que agreguen las escrituras
+    // mientras tanto no las ve el DELETE, así que se conservan para la próxima compactación.
+    private static final String COMPACTAR = "WITH borradas AS (DELETE FROM estadisticas_pais RETURNING id_pais, edad, total) " +
+            "INSERT INTO estadisticas_pais (id_pais, edad, total) " +
+            "SELECT id_pais, edad, sum(total) FROM borradas GROUP BY id_pais, edad HAVING sum(total) <> 0";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public EstadisticasPaisServicioImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        logger.info("EstadisticasPaisServicioImpl inicializado.");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EstadisticasPaisDTO getEstadisticas(Long paisId) {
+        return getEstadisticas(List.of(paisId)).get(0);
+    }
+
+    // Una sola consulta para todos los países pedidos.
+    @Override
+    @Transactional(readOnly = true)
+    public List<EstadisticasPaisDTO> getEstadisticas(List<Long> paisIds) {
+        Map<Long, ContadoresPais> contadores = new HashMap<>();
+        jdbcTemplate.query(conexion -> {
+            PreparedStatement consulta = conexion.prepareStatement(SUMAR);
+            Array ids = conexion.createArrayOf("bigint", paisIds.toArray());
+            consulta.setArray(1, ids);
+            return consulta;
+        }, (ResultSet fila) -> {
+            contadores.computeIfAbsent(fila.getLong(1), id -> new ContadoresPais()).sumar(edad(fila), fila.getLong(3));
+        });
+        return paisIds.stream()
+                .map(id -> contadores.getOrDefault(id, new ContadoresPais()).aDto(id))
+                .toList();
+    }
+
+    // Recalcula todas las estadísticas contando personas (corrige, por ejemplo, filas cargadas con los triggers
+    // desactivados). Frena las escrituras en personas mientras dura el conteo.
+    @Override
+    @Transactional
+    public void reconstruir() {
+        logger.info("Reconstruyendo estadísticas por país desde la tabla de personas.");
+        jdbcTemplate.execute(BLOQUEAR_PERSONAS);
+        jdbcTemplate.execute(BLOQUEAR);
+        jdbcTemplate.update("DELETE FROM estadisticas_pais");
+        int grupos = jdbcTemplate.update("INSERT INTO estadisticas_pais (id_pais, edad, total) " +
+                "SELECT id_pais, edad, count(*) FROM personas GROUP BY id_pais, edad");
+        logger.info("Estadísticas reconstruidas a partir de {} grupos.", grupos);
+    }
+
+    // Lo mismo para un país, leyendo solo su partición. Dentro de una transacción que ya tiene bloqueada personas
+    // (mantenimiento de particiones) se suma a ella, y el conteo refleja la partición tal como quedará.
+    @Override
+    @Transactional
+    public void reconstruir(Long paisId) {
+        jdbcTemplate.execute(BLOQUEAR_PERSONAS);
+        jdbcTemplate.execute(BLOQUEAR);
+        jdbcTemplate.update("DELETE FROM estadisticas_pais WHERE id_pais = ?", paisId);
+        int grupos = jdbcTemplate.update("INSERT INTO estadisticas_pais (id_pais, edad, total) " +
+                "SELECT id_pais, edad, count(*) FROM personas WHERE id_pais = ? GROUP BY id_pais, edad", paisId);
+        logger.info("Estadísticas del país {} reconstruidas a partir de {} grupos.", paisId, grupos);
+    }
+
+    // Cada escritura agrega filas; la compactación las mantiene en unas pocas por país y edad. Es segura con
+    // varias instancias a la vez: cada fila la borra (y la suma) una sola de ellas.
+    @Scheduled(initialDelayString = "${app.estadisticas.intervalo-compactacion:5m}",
+            fixedDelayString = "${app.estadisticas.intervalo-compactacion:5m}")
+    @Transactional
+    public void compactar() {
+        try {
+            int filas = jdbcTemplate.update(COMPACTAR);
+            logger.debug("Estadísticas por país compactadas en {} filas.", filas);
+        } catch (DataAccessException e) {
+            logger.warn("No se pudieron compactar las estadísticas por país: {}", e.getMessage());
+        }
+    }
+
+    private static Integer edad(ResultSet fila) throws SQLException {
+        int edad = fila.getInt(2);
+        return fila.wasNull() ? null : edad;
+    }
+
+    // Conteos de un país, acumulados a partir de las filas de estadisticas_pais.
+    static final class ContadoresPais {
+
+        private long poblacion;
+        private long sinEdad;
+        private long sumaEdades;
+        // Conteo por edad exacta: permite conocer el mínimo y el máximo también después de una baja.
+        private final TreeMap<Integer, Long> porEdad = new TreeMap<>();
+
+        void sumar(Integer edad, long cantidad) {
+            poblacion += cantidad;
+            if (edad == null) {
+                sinEdad += cantidad;
+                return;
+            }
+            porEdad.merge(edad, cantidad, Long::sum);
+            sumaEdades += (long) edad * cantidad;
+        }
+
+        EstadisticasPaisDTO aDto(Long paisId) {
+            Integer minima = null;
+            Integer maxima = null;
+            Map<String, Long> histograma = new LinkedHashMap<>();
+            for (int desde = 0; desde < ULTIMO_RANGO; desde += ANCHO_RANGO) {
+                histograma.put(desde + "-" + (desde + ANCHO_RANGO - 1), 0L);
+            }
+            histograma.put(ULTIMO_RANGO + "+", 0L);
+
+            for (Map.Entry<Integer, Long> conteo : porEdad.entrySet()) { // En orden de edad
+                if (conteo.getValue() <= 0) {
+                    continue;
+                }
+                int edad = conteo.getKey();
+                if (minima == null) {
+                    minima = edad;
+                }
+                maxima = edad;
+                int desde = Math.max(0, edad) / ANCHO_RANGO * ANCHO_RANGO;
+                String rango = edad >= ULTIMO_RANGO ? ULTIMO_RANGO + "+" : desde + "-" + (desde + ANCHO_RANGO - 1);
+                histograma.merge(rango, conteo.getValue(), Long::sum);
+            }
+
+            long conEdad = poblacion - sinEdad;
+            return EstadisticasPaisDTO.builder()
+                    .paisId(paisId)
+                    .poblacion(poblacion)
+                    .sinEdad(sinEdad)
+                    .edadMinima(minima)
+                    .edadMaxima(maxima)
+                    .edadPromedio(conEdad > 0 ? (double) sumaEdades / conEdad : null)
+                    .histograma(histograma)
+                    .build();
+        }
+    }
+}
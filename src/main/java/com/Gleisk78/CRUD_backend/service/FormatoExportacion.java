@@ -0,0 +1,9 @@
+package com.Gleisk78.CRUD_backend.service;
+
+// Formatos de la exportación de personas. NDJSON escribe un objeto JSON por línea; Smile y CBOR escriben una persona
+// tras otra sin separador (los lectores de Jackson las recorren con ObjectReader.readValues).
+public enum FormatoExportacion {
+    NDJSON,
+    SMILE,
+    CBOR
+}
@@ -0,0 +1,16 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.dto.ResultadoImportacion;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+
+public interface ImportacionPersonasServicio {
+
+    ResultadoImportacion importar(InputStream csv, long bytesTotales, boolean encabezado);
+
+    Optional<ResultadoImportacion> getImportacion(String id);
+
+    List<ResultadoImportacion> getImportaciones();
+}
@@ -0,0 +1,320 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.dto.RechazoImportacion;
+import com.Gleisk78.CRUD_backend.dto.ResultadoImportacion;
+import com.Gleisk78.CRUD_backend.entity.TipoCambio;
+import com.Gleisk78.CRUD_backend.exception.ServicioSaturadoException;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+
+// Importación masiva de personas desde CSV (nombre,edad,pais) con COPY de PostgreSQL.
+// 1. El cuerpo de la petición se copia en streaming (COPY FROM STDIN) a una tabla temporal de texto, sin
+//    validar ni cargar el archivo en memoria: COPY solo falla ante un CSV mal formado.
+// 2. Una única sentencia resuelve los países (por ID o por nombre), valida cada fila, inserta las válidas en
+//    personas y guarda las rechazadas con su motivo.
+// Todo ocurre en una transacción: si algo falla no queda ninguna fila a medias.
+@Service
+public class ImportacionPersonasServicioImpl implements ImportacionPersonasServicio {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacionPersonasServicioImpl.class);
+
+    // Tablas temporales de la sesión; desaparecen al terminar la transacción. Todas las columnas del CSV son
+    // texto para que los valores inválidos se rechacen fila por fila en vez de abortar el COPY.
+    private static final String CREAR_TABLAS =
+            "CREATE TEMP TABLE importacion_personas (fila BIGSERIAL, nombre TEXT, edad TEXT, pais TEXT) ON COMMIT DROP; " +
+            "CREATE TEMP TABLE importacion_rechazos (fila BIGINT, motivo TEXT) ON COMMIT DROP";
+
+    // Los países se resuelven una vez por cada valor distinto del CSV (pocos) y se cruzan con las filas por
+    // igualdad, lo que permite un hash join aunque el archivo tenga millones de filas. Los CAST van dentro de
+    // CASE para que un valor no numérico nunca llegue a convertirse.
+    // Los IDs salen de personas_seq en bloques de 50, igual que los de Hibernate (optimizador pooled): cada nextval
+    // reserva los 50 IDs que terminan en su valor. Se piden solo los bloques necesarios para las filas válidas y
+    // cada fila toma un ID dentro de ellos, en el orden del CSV. Los bloques no tienen por qué ser contiguos
+    // (otras instancias piden los suyos a la vez), pero son exclusivos de la importación.
+    private static final String PROCESAR =
+            "WITH paises_csv AS (" +
+            "  SELECT c.pais, COALESCE(por_id.id_pais, por_nombre.id_pais) AS id_pais " +
+            "  FROM (SELECT DISTINCT pais FROM importacion_personas WHERE pais IS NOT NULL) c " +
+            "  LEFT JOIN paises por_id ON por_id.id_pais = " +
+            "       CASE WHEN btrim(c.pais) ~ '^[0-9]{1,18}$' THEN CAST(btrim(c.pais) AS BIGINT) END " +
+            "  LEFT JOIN paises por_nombre ON por_nombre.nombre = btrim(c.pais)), " +
+            "filas AS (" +
+            "  SELECT s.fila, btrim(s.nombre) AS nombre, " +
+            "         CASE WHEN btrim(s.edad) ~ '^-?[0-9]{1,9}$' THEN CAST(btrim(s.edad) AS INTEGER) END AS edad, " +
+            "         c.id_pais, " +
+            "         CASE WHEN s.nombre IS NULL OR btrim(s.nombre) = '' THEN 'Nombre vacío' " +
+            "              WHEN length(btrim(s.nombre)) > 100 THEN 'Nombre de más de 100 caracteres' " +
+            "              WHEN btrim(s.edad) <> '' AND btrim(s.edad) !~ '^-?[0-9]{1,9}$' THEN 'Edad inválida: ' || s.edad " +
+            "              WHEN s.pais IS NULL OR btrim(s.pais) = '' THEN 'País vacío' " +
+            "              WHEN c.id_pais IS NULL THEN 'País no encontrado: ' || s.pais " +
+            "         END AS motivo " +
+            "  FROM importacion_personas s LEFT JOIN paises_csv c ON c.pais = s.pais), " +
+            "rechazadas AS (" +
+            "  INSERT INTO importacion_rechazos (fila, motivo) SELECT fila, motivo FROM filas WHERE motivo IS NOT NULL), " +
+            "validas AS (" +
+            "  SELECT nombre, edad, id_pais, row_number() OVER (ORDER BY fila) - 1 AS orden FROM filas WHERE motivo IS NULL), " +
+            "bloques AS (" +
+            "  SELECT b.numero - 1 AS numero, nextval('personas_seq') AS fin " +
+            "  FROM generate_series(1, (SELECT (count(*) + 49) / 50 FROM validas)) AS b(numero)), " +
+            "insertadas AS (" +
+            "  INSERT INTO personas (id_persona, nombre, edad, id_pais, version) " +
+            "  SELECT b.fin - 49 + v.orden % 50, v.nombre, v.edad, v.id_pais, 0 " +
+            "  FROM validas v JOIN bloques b ON b.numero = v.orden / 50 " +
+            "  RETURNING 1) " +
+            "SELECT count(*) FROM insertadas";
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final VersionColecciones versionColecciones;
+    private final CacheSegundoNivel cacheSegundoNivel;
+    private final RegistroCambios registroCambios;
+    private final int maximoRechazos; // Rechazos detallados en la respuesta; el total se informa siempre
+    private final int historial; // Importaciones terminadas que se siguen pudiendo consultar
+    private final Semaphore simultaneas; // Cada importación ocupa una conexión durante toda la carga
+    private final Map<String, Importacion> importaciones = new LinkedHashMap<>();
+
+    @Autowired
+    public ImportacionPersonasServicioImpl(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                                           VersionColecciones versionColecciones, CacheSegundoNivel cacheSegundoNivel,
+                                           RegistroCambios registroCambios,
+                                           @Value("${app.importacion.max-rechazos:1000}") int maximoRechazos,
+                                           @Value("${app.importacion.historial:20}") int historial,
+                                           @Value("${app.importacion.maximo-simultaneas:2}") int maximoSimultaneas) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.versionColecciones = versionColecciones;
+        this.cacheSegundoNivel = cacheSegundoNivel;
+        this.registroCambios = registroCambios;
+        this.maximoRechazos = maximoRechazos;
+        this.historial = historial;
+        this.simultaneas = new Semaphore(maximoSimultaneas);
+        logger.info("ImportacionPersonasServicioImpl inicializado ({} importaciones simultáneas como máximo).", maximoSimultaneas);
+    }
+
+    @Override
+    public ResultadoImportacion importar(InputStream csv, long bytesTotales, boolean encabezado) {
+        if (!simultaneas.tryAcquire()) {
+            throw new ServicioSaturadoException("Ya hay demasiadas importaciones en curso.");
+        }
+        Importacion importacion = registrar(bytesTotales, encabezado);
+        try {
+            logger.info("Importación {} iniciada ({} bytes anunciados).", importacion.id, bytesTotales);
+            transactionTemplate.executeWithoutResult(estado ->
+                    entityManager.unwrap(Session.class).doWork(conexion -> cargar(conexion, csv, encabezado, importacion)));
+            importacion.estado = "TERMINADA";
+            logger.info("Importación {} terminada: {} filas, {} insertadas, {} rechazadas en {} ms.", importacion.id,
+                    importacion.filasLeidas, importacion.filasInsertadas, importacion.filasRechazadas, importacion.duracionMs());
+        } catch (RuntimeException e) {
+            importacion.estado = "FALLIDA";
+            importacion.error = e.getMessage();
+            logger.error("Importación {} fallida tras {} bytes: {}", importacion.id, importacion.bytesLeidos, e.getMessage());
+            throw e;
+        } finally {
+            importacion.fin = Instant.now();
+            simultaneas.release();
+        }
+        return importacion.resultado(true);
+    }
+
+    private void cargar(Connection conexion, InputStream csv, boolean encabezado, Importacion importacion) throws SQLException {
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.execute(CREAR_TABLAS);
+        }
+
+        CopyManager copia = conexion.unwrap(PGConnection.class).getCopyAPI();
+        String copiar = "COPY importacion_personas (nombre, edad, pais) FROM STDIN WITH (FORMAT csv, HEADER " + encabezado + ")";
+        try {
+            importacion.filasLeidas = copia.copyIn(copiar, new EntradaContada(csv, importacion), 65536);
+        } catch (SQLException e) {
+            // Clase 22 (excepción de datos): CSV mal formado, columnas de más o de menos, codificación inválida.
+            if (e.getSQLState() != null && e.getSQLState().startsWith("22")) {
+                throw new IllegalArgumentException("CSV inválido: " + e.getMessage(), e);
+            }
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error leyendo el CSV recibido", e);
+        }
+
+        importacion.estado = "PROCESANDO";
+        try (Statement sentencia = conexion.createStatement()) {
+            // Las tablas temporales no las analiza autovacuum: sin estadísticas el planificador no sabe su tamaño.
+            sentencia.execute("ANALYZE importacion_personas");
+            // Las estadísticas por país las actualiza el trigger de personas, una vez para todo el INSERT
+            try (ResultSet insertadas = sentencia.executeQuery(PROCESAR)) {
+                insertadas.next();
+                importacion.filasInsertadas = insertadas.getLong(1);
+            }
+            try (ResultSet total = sentencia.executeQuery("SELECT count(*) FROM importacion_rechazos")) {
+                total.next();
+                importacion.filasRechazadas = total.getLong(1);
+            }
+        }
+        try (PreparedStatement consulta = conexion.prepareStatement(
+                "SELECT fila, motivo FROM importacion_rechazos ORDER BY fila LIMIT ?")) {
+            consulta.setInt(1, maximoRechazos);
+            try (ResultSet filas = consulta.executeQuery()) {
+                while (filas.next()) {
+                    importacion.rechazos.add(new RechazoImportacion(filas.getLong(1), filas.getString(2)));
+                }
+            }
+        }
+
+        if (importacion.filasInsertadas > 0) {
+            // Inserciones hechas por fuera de Hibernate: los listados cacheados y los ETag dejan de valer.
+            versionColecciones.registrarCambio(VersionColecciones.PERSONAS);
+            cacheSegundoNivel.desalojarListadosPersonas();
+            // Un único evento RECARGA en vez de uno por fila: millones de eventos saturarían el feed de cambios.
+            registroCambios.registrar(VersionColecciones.PERSONAS, TipoCambio.RECARGA, null, null);
+        }
+    }
+
+    @Override
+    public Optional<ResultadoImportacion> getImportacion(String id) {
+        synchronized (importaciones) {
+            return Optional.ofNullable(importaciones.get(id)).map(importacion -> importacion.resultado(true));
+        }
+    }
+
+    @Override
+    public List<ResultadoImportacion> getImportaciones() {
+        synchronized (importaciones) {
+            return importaciones.values().stream().map(importacion -> importacion.resultado(false)).toList();
+        }
+    }
+
+    // Registra la importación y descarta las terminadas más antiguas por encima del historial.
+    private Importacion registrar(long bytesTotales, boolean encabezado) {
+        Importacion importacion = new Importacion(UUID.randomUUID().toString(), bytesTotales, encabezado);
+        synchronized (importaciones) {
+            importaciones.put(importacion.id, importacion);
+            int sobrantes = importaciones.size() - historial;
+            var iterador = importaciones.values().iterator();
+            while (sobrantes > 0 && iterador.hasNext()) {
+                if (iterador.next().fin != null) {
+                    iterador.remove();
+                    sobrantes--;
+                }
+            }
+        }
+        return importacion;
+    }
+
+    // Estado de una importación. Solo la modifica el hilo que la ejecuta; los campos son volatile para que
+    // las consultas de progreso desde otras peticiones vean valores actuales.
+    static final class Importacion {
+
+        final String id;
+        final long bytesTotales;
+        final boolean encabezado;
+        final Instant inicio = Instant.now();
+        final List<RechazoImportacion> rechazos = new ArrayList<>();
+        volatile String estado = "COPIANDO";
+        volatile long bytesLeidos;
+        volatile long lineasLeidas;
+        volatile long filasLeidas;
+        volatile long filasInsertadas;
+        volatile long filasRechazadas;
+        volatile String error;
+        volatile Instant fin;
+
+        Importacion(String id, long bytesTotales, boolean encabezado) {
+            this.id = id;
+            this.bytesTotales = bytesTotales;
+            this.encabezado = encabezado;
+        }
+
+        long duracionMs() {
+            return Duration.between(inicio, fin != null ? fin : Instant.now()).toMillis();
+        }
+
+        ResultadoImportacion resultado(boolean conRechazos) {
+            boolean terminada = fin != null;
+            return ResultadoImportacion.builder()
+                    .id(id)
+                    .estado(estado)
+                    .bytesLeidos(bytesLeidos)
+                    .bytesTotales(bytesTotales)
+                    // Mientras se copia solo se conoce el número de líneas leídas; COPY da el de filas al final.
+                    .filasLeidas("COPIANDO".equals(estado) ? Math.max(0, lineasLeidas - (encabezado ? 1 : 0)) : filasLeidas)
+                    .filasInsertadas(filasInsertadas)
+                    .filasRechazadas(filasRechazadas)
+                    .rechazos(conRechazos && terminada ? List.copyOf(rechazos) : List.of())
+                    .error(error)
+                    .inicio(inicio)
+                    .duracionMs(duracionMs())
+                    .build();
+        }
+    }
+
+    // Cuenta bytes y saltos de línea a medida que COPY consume el cuerpo de la petición.
+    static final class EntradaContada extends FilterInputStream {
+
+        private final Importacion importacion;
+        private long bytes;
+        private long lineas;
+
+        EntradaContada(InputStream entrada, Importacion importacion) {
+            super(entrada);
+            this.importacion = importacion;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int leido = super.read();
+            if (leido >= 0) {
+                contar(leido == '\n' ? 1 : 0, 1);
+            }
+            return leido;
+        }
+
+        @Override
+        public int read(byte[] destino, int desde, int largo) throws IOException {
+            int leidos = super.read(destino, desde, largo);
+            if (leidos > 0) {
+                int saltos = 0;
+                for (int i = desde; i < desde + leidos; i++) {
+                    if (destino[i] == '\n') {
+                        saltos++;
+                    }
+                }
+                contar(saltos, leidos);
+            }
+            return leidos;
+        }
+
+        private void contar(int saltos, int leidos) {
+            bytes += leidos;
+            lineas += saltos;
+            importacion.bytesLeidos = bytes;
+            importacion.lineasLeidas = lineas;
+        }
+    }
+}
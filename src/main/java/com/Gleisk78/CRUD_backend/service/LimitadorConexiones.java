@@ -0,0 +1,97 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.exception.ServicioSaturadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Limita cuántas llamadas a PersonaServicioImpl y PaisServicioImpl se ejecutan a la vez, con tantos permisos
+// como conexiones tiene el pool de Hikari. Pensado para el modo de hilos virtuales: miles de peticiones
+// concurrentes esperan en la cola (barata) de un semáforo justo en lugar de competir por una conexión dentro
+// de Hikari hasta agotar su timeout. Corre antes que @Transactional (máxima precedencia), así que el permiso
+// se toma antes de pedir la conexión y se devuelve después del commit.
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.limitador.habilitado", havingValue = "true")
+public class LimitadorConexiones {
+
+    private static final Logger logger = LoggerFactory.getLogger(LimitadorConexiones.class);
+
+    private final Semaphore permisos;
+    private final Duration esperaMaxima;
+    private final Timer tiempoEspera;
+    private final Counter rechazos;
+    // Un servicio que llama a otro (o a sí mismo a través del proxy) no toma un segundo permiso.
+    private final ThreadLocal<Boolean> dentro = new ThreadLocal<>();
+
+    @Autowired
+    public LimitadorConexiones(@Value("${app.limitador.permisos:10}") int permisos,
+                               @Value("${app.limitador.espera-maxima:5s}") Duration esperaMaxima,
+                               MeterRegistry registro) {
+        this.permisos = new Semaphore(permisos, true);
+        this.esperaMaxima = esperaMaxima;
+        this.tiempoEspera = Timer.builder("limitador.conexiones.espera")
+                .description("Tiempo de espera por un permiso de acceso a la base de datos")
+                .register(registro);
+        this.rechazos = Counter.builder("limitador.conexiones.rechazos")
+                .description("Peticiones rechazadas por superar la espera máxima")
+                .register(registro);
+        Gauge.builder("limitador.conexiones.cola", this.permisos, Semaphore::getQueueLength)
+                .description("Peticiones esperando un permiso")
+                .register(registro);
+        Gauge.builder("limitador.conexiones.en.uso", this.permisos, s -> permisos - s.availablePermits())
+                .description("Permisos tomados en este momento")
+                .register(registro);
+        logger.info("LimitadorConexiones activo con {} permisos y una espera máxima de {}.", permisos, esperaMaxima);
+    }
+
+    @Around("within(com.Gleisk78.CRUD_backend.service.PersonaServicioImpl) || within(com.Gleisk78.CRUD_backend.service.PaisServicioImpl)")
+    public Object limitar(ProceedingJoinPoint llamada) throws Throwable {
+        if (dentro.get() != null) {
+            return llamada.proceed();
+        }
+        adquirir(llamada);
+        dentro.set(Boolean.TRUE);
+        try {
+            return llamada.proceed();
+        } finally {
+            dentro.remove();
+            permisos.release();
+        }
+    }
+
+    private void adquirir(ProceedingJoinPoint llamada) {
+        long inicio = System.nanoTime();
+        boolean adquirido;
+        try {
+            adquirido = permisos.tryAcquire(esperaMaxima.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            adquirido = false;
+        }
+        tiempoEspera.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        if (!adquirido) {
+            rechazos.increment();
+            logger.warn("Sin permiso de acceso a la base de datos tras {} para {} ({} en cola).",
+                    esperaMaxima, llamada.getSignature().toShortString(), permisos.getQueueLength());
+            throw new ServicioSaturadoException("El servicio está saturado, intenta nuevamente en unos segundos.");
+        }
+    }
+}
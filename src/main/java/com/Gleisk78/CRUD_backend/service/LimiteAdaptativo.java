@@ -0,0 +1,139 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// Límite de peticiones simultáneas que se ajusta solo según la latencia observada (algoritmo de gradiente, como el
+// Gradient2 de la librería concurrency-limits de Netflix, con retroceso multiplicativo ante fallos como en AIMD).
+//
+// Las latencias se agrupan en ventanas. Al cerrar cada una se compara la latencia media de la ventana (corta) con un
+// promedio de largo plazo: si la corta sube (la BD se está frenando y las peticiones empiezan a hacer cola) el límite
+// baja hasta la mitad por ventana; si se mantiene, el límite crece de a poco (raíz cuadrada del límite) para probar
+// si hay capacidad libre. Una ventana con fallos (5xx, excepciones) recorta el límite de forma multiplicativa.
+// Lo que supera el límite se rechaza al instante: nunca se encola.
+public class LimiteAdaptativo {
+
+    private static final double GRADIENTE_MINIMO = 0.5; // Como mucho se reduce a la mitad por ventana
+    private static final double RETROCESO_FALLOS = 0.9;
+
+    private final int minimo;
+    private final int maximo;
+    private final double tolerancia; // Cuánto puede crecer la latencia corta sobre la larga antes de reducir el límite
+    private final double suavizado; // Peso del nuevo valor frente al anterior en cada ajuste (0..1)
+    private final long ventanaNanos;
+    private final int muestrasMinimas; // Una ventana con menos muestras no ajusta el límite (sigue acumulando)
+    private final int ventanasRttLargo; // Ventanas que abarca el promedio de largo plazo
+    private final LongSupplier reloj;
+
+    private final AtomicInteger enVuelo = new AtomicInteger();
+    private volatile int limite;
+
+    // Estado de la ventana actual y del ajuste; protegido por 'this'
+    private double limiteEstimado;
+    private double rttLargo; // Nanosegundos; 0 hasta cerrar la primera ventana
+    private long inicioVentana;
+    private long sumaRtt;
+    private int muestras;
+    private int maximoEnVuelo;
+    private int fallos;
+
+    public LimiteAdaptativo(int inicial, int minimo, int maximo, double tolerancia, double suavizado,
+                            long ventanaNanos, int muestrasMinimas, int ventanasRttLargo, LongSupplier reloj) {
+        if (minimo < 1 || minimo > inicial || inicial > maximo) {
+            throw new IllegalArgumentException("Se requiere 1 <= mínimo <= inicial <= máximo: " + minimo + ", " + inicial + ", " + maximo);
+        }
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.tolerancia = tolerancia;
+        this.suavizado = suavizado;
+        this.ventanaNanos = ventanaNanos;
+        this.muestrasMinimas = muestrasMinimas;
+        this.ventanasRttLargo = ventanasRttLargo;
+        this.reloj = reloj;
+        this.limite = inicial;
+        this.limiteEstimado = inicial;
+        this.inicioVentana = reloj.getAsLong();
+    }
+
+    // Toma un lugar si hay alguno libre; null si se alcanzó el límite. El permiso debe devolverse con liberar().
+    public Permiso adquirir() {
+        while (true) {
+            int actuales = enVuelo.get();
+            if (actuales >= limite) {
+                return null;
+            }
+            if (enVuelo.compareAndSet(actuales, actuales + 1)) {
+                return new Permiso(reloj.getAsLong(), actuales + 1);
+            }
+        }
+    }
+
+    // Devuelve el lugar y registra la latencia. Sin muestra (medir = false) si la duración no refleja el trabajo
+    // hecho, por ejemplo cuando la respuesta sigue en segundo plano.
+    public void liberar(Permiso permiso, boolean fallo, boolean medir) {
+        enVuelo.decrementAndGet();
+        if (medir) {
+            registrar(reloj.getAsLong() - permiso.inicio(), permiso.enVuelo(), fallo);
+        }
+    }
+
+    private synchronized void registrar(long rtt, int enVueloAlEntrar, boolean fallo) {
+        sumaRtt += rtt;
+        muestras++;
+        maximoEnVuelo = Math.max(maximoEnVuelo, enVueloAlEntrar);
+        if (fallo) {
+            fallos++;
+        }
+        long ahora = reloj.getAsLong();
+        if (ahora - inicioVentana < ventanaNanos || muestras < muestrasMinimas) {
+            return;
+        }
+        ajustar((double) sumaRtt / muestras);
+        inicioVentana = ahora;
+        sumaRtt = 0;
+        muestras = 0;
+        maximoEnVuelo = 0;
+        fallos = 0;
+    }
+
+    private void ajustar(double rttCorto) {
+        if (rttLargo == 0) {
+            rttLargo = rttCorto;
+        } else {
+            rttLargo += (rttCorto - rttLargo) / ventanasRttLargo;
+        }
+        // Si la latencia bajó mucho (la BD se recuperó), el promedio largo se acerca rápido en vez de arrastrar
+        // durante minutos el valor de la degradación.
+        if (rttLargo / rttCorto > 2) {
+            rttLargo *= 0.95;
+        }
+        double nuevo;
+        if (fallos > 0) {
+            nuevo = limiteEstimado * RETROCESO_FALLOS;
+        } else if (maximoEnVuelo < limiteEstimado / 2) {
+            return; // Casi sin uso: la latencia no dice nada sobre si el límite es adecuado
+        } else {
+            double gradiente = Math.max(GRADIENTE_MINIMO, Math.min(1.0, tolerancia * rttLargo / rttCorto));
+            nuevo = limiteEstimado * gradiente + Math.sqrt(limiteEstimado);
+            nuevo = limiteEstimado * (1 - suavizado) + nuevo * suavizado;
+        }
+        limiteEstimado = Math.max(minimo, Math.min(maximo, nuevo));
+        limite = (int) limiteEstimado;
+    }
+
+    public int limite() {
+        return limite;
+    }
+
+    public int enVuelo() {
+        return enVuelo.get();
+    }
+
+    public synchronized double rttLargoMilisegundos() {
+        return rttLargo / 1_000_000;
+    }
+
+    // Momento de entrada y peticiones en curso (incluida esta) al tomar el permiso.
+    public record Permiso(long inicio, int enVuelo) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Publica en Micrometer los contadores de PaisCache (los mismos de GET /api/v1/paises/cache/estadisticas),
+// para verlos en /actuator/metrics junto a las métricas de Hibernate y de los endpoints.
+@Component
+public class MetricasPaisCache implements MeterBinder {
+
+    private final PaisCache paisCache;
+
+    @Autowired
+    public MetricasPaisCache(PaisCache paisCache) {
+        this.paisCache = paisCache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registro) {
+        FunctionCounter.builder("cache.paises.aciertos", paisCache, c -> c.estadisticas().getAciertos())
+                .description("Búsquedas de países resueltas desde la caché")
+                .register(registro);
+        FunctionCounter.builder("cache.paises.fallos", paisCache, c -> c.estadisticas().getFallos())
+                .description("Búsquedas de países que consultaron la base de datos")
+                .register(registro);
+        FunctionCounter.builder("cache.paises.desalojos", paisCache, c -> c.estadisticas().getDesalojos())
+                .description("Países desalojados por superar el máximo de entradas")
+                .register(registro);
+        Gauge.builder("cache.paises.entradas", paisCache, c -> c.estadisticas().getEntradas())
+                .description("Países en caché")
+                .register(registro);
+    }
+}
@@ -0,0 +1,50 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.dto.PaginaCursor;
+
+import java.util.List;
+import java.util.function.Function;
+
+// Utilidades compartidas por los servicios para la paginación por cursor (keyset).
+final class Paginacion {
+
+    private Paginacion() {
+    }
+
+    // Acota el límite pedido por el cliente: usa el valor por defecto si no viene y nunca supera el máximo.
+    static int limiteEfectivo(Integer solicitado, int porDefecto, int maximo) {
+        if (solicitado == null || solicitado <= 0) {
+            return Math.min(porDefecto, maximo);
+        }
+        return Math.min(solicitado, maximo);
+    }
+
+    // El cursor 'after' es exclusivo: sin cursor empezamos antes del primer ID posible.
+    static long cursorInicial(Long after) {
+        return after == null ? 0L : after;
+    }
+
+    // Para listados con orden por relevancia (sin clave única creciente) el cursor es el desplazamiento siguiente.
+    static <T> PaginaCursor<T> construirPorDesplazamiento(List<T> filas, int limite, int desplazamiento) {
+        boolean hayMas = filas.size() > limite;
+        return PaginaCursor.<T>builder()
+                .items(hayMas ? filas.subList(0, limite) : filas)
+                .limite(limite)
+                .siguienteCursor(hayMas ? String.valueOf(desplazamiento + limite) : null)
+                .hayMas(hayMas)
+                .build();
+    }
+
+    // Construye la página a partir de 'limite + 1' filas: la fila extra solo indica que hay más resultados.
+    static <T> PaginaCursor<T> construir(List<T> filas, int limite, Function<T, Long> extractorId) {
+        boolean hayMas = filas.size() > limite;
+        List<T> items = hayMas ? filas.subList(0, limite) : filas;
+        String siguienteCursor = hayMas ? String.valueOf(extractorId.apply(items.get(items.size() - 1))) : null;
+        return PaginaCursor.<T>builder()
+                .items(items)
+                .limite(limite)
+                .siguienteCursor(siguienteCursor)
+                .hayMas(hayMas)
+                .build();
+    }
+}
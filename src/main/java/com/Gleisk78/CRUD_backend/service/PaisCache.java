@@ -0,0 +1,228 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.dto.EstadisticasCacheDTO;
+import com.Gleisk78.CRUD_backend.entity.Pais;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Caché en memoria de países, indexada por ID y por nombre, acotada a un máximo de entradas (LRU).
+// Los países son pocos y casi nunca cambian, así que normalmente la tabla completa cabe en la caché; en ese caso
+// también se responden sin SQL las búsquedas de países inexistentes y los listados.
+// PaisServicioImpl la mantiene al día después de cada escritura confirmada.
+// Las entradas se guardan y se devuelven como copias para que nadie modifique el estado compartido.
+@Component
+public class PaisCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaisCache.class);
+
+    private final int maxEntradas;
+    private final Map<Long, Pais> porId; // Orden de acceso: la entrada menos usada es la primera en salir
+    private final Map<String, Long> porNombre = new HashMap<>();
+    private boolean completa; // true mientras la caché contenga todos los países de la base de datos
+    private long generacion; // Aumenta con cada escritura; evita guardar cargas que leyeron datos ya obsoletos
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong desalojos = new AtomicLong();
+
+    public PaisCache(@Value("${app.cache.paises.max-entradas:1000}") int maxEntradas) {
+        this.maxEntradas = maxEntradas;
+        this.porId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Pais> masAntigua) {
+                if (size() <= PaisCache.this.maxEntradas) {
+                    return false;
+                }
+                porNombre.remove(masAntigua.getValue().getNombre());
+                completa = false; // Ya no podemos afirmar que un país ausente no existe
+                desalojos.incrementAndGet();
+                return true;
+            }
+        };
+        logger.info("PaisCache inicializada con un máximo de {} entradas.", maxEntradas);
+    }
+
+    // Busca un país por ID; si no está en caché lo carga con 'cargador' y lo guarda.
+    public Optional<Pais> buscarPorId(Long id, Function<Long, Optional<Pais>> cargador) {
+        long generacionInicial;
+        synchronized (this) {
+            Pais pais = porId.get(id);
+            if (pais != null || completa) {
+                aciertos.incrementAndGet();
+                return Optional.ofNullable(pais).map(PaisCache::copiar);
+            }
+            generacionInicial = generacion;
+        }
+        fallos.incrementAndGet();
+        Optional<Pais> cargado = cargador.apply(id);
+        cargado.ifPresent(p -> guardarSiVigente(List.of(p), generacionInicial));
+        return cargado.map(PaisCache::copiar);
+    }
+
+    // Busca un país por nombre exacto; si no está en caché lo carga con 'cargador' y lo guarda.
+    public Optional<Pais> buscarPorNombre(String nombre, Function<String, Optional<Pais>> cargador) {
+        long generacionInicial;
+        synchronized (this) {
+            Long id = porNombre.get(nombre);
+            if (id != null || completa) {
+                aciertos.incrementAndGet();
+                return Optional.ofNullable(id).map(porId::get).map(PaisCache::copiar);
+            }
+            generacionInicial = generacion;
+        }
+        fallos.incrementAndGet();
+        Optional<Pais> cargado = cargador.apply(nombre);
+        cargado.ifPresent(p -> guardarSiVigente(List.of(p), generacionInicial));
+        return cargado.map(PaisCache::copiar);
+    }
+
+    // Resuelve varios IDs a la vez: los que faltan en caché se cargan con una sola llamada a 'cargador'.
+    public Map<Long, Pais> buscarPorIds(Collection<Long> ids, Function<Collection<Long>, List<Pais>> cargador) {
+        Map<Long, Pais> encontrados = new HashMap<>();
+        List<Long> faltantes;
+        long generacionInicial;
+        synchronized (this) {
+            for (Long id : ids) {
+                Pais pais = porId.get(id);
+                if (pais != null) {
+                    encontrados.put(id, copiar(pais));
+                }
+            }
+            faltantes = completa ? List.of() : ids.stream().filter(id -> !encontrados.containsKey(id)).toList();
+            generacionInicial = generacion;
+        }
+        aciertos.addAndGet(ids.size() - faltantes.size());
+        if (!faltantes.isEmpty()) {
+            fallos.addAndGet(faltantes.size());
+            List<Pais> cargados = cargador.apply(faltantes);
+            guardarSiVigente(cargados, generacionInicial);
+            cargados.forEach(p -> encontrados.put(p.getId(), copiar(p)));
+        }
+        return encontrados;
+    }
+
+    // Todos los países ordenados por ID, solo si la caché tiene la tabla completa.
+    public synchronized Optional<List<Pais>> todos() {
+        if (!completa) {
+            fallos.incrementAndGet();
+            return Optional.empty();
+        }
+        aciertos.incrementAndGet();
+        return Optional.of(porId.values().stream()
+                .sorted(Comparator.comparing(Pais::getId))
+                .map(PaisCache::copiar)
+                .toList());
+    }
+
+    public int maxEntradas() {
+        return maxEntradas;
+    }
+
+    // Generación actual; se pasa a cargarTodos() para descartar cargas que compitieron con una escritura.
+    public synchronized long generacion() {
+        return generacion;
+    }
+
+    // Guarda la tabla completa si cabe y si nadie escribió desde que se empezó a leer.
+    public synchronized void cargarTodos(List<Pais> paises, long generacionInicial) {
+        if (generacion != generacionInicial || paises.size() > maxEntradas) {
+            return;
+        }
+        porId.clear();
+        porNombre.clear();
+        paises.forEach(this::poner);
+        completa = true;
+        logger.debug("PaisCache cargada completa con {} países.", paises.size());
+    }
+
+    // Refleja la creación o actualización de un país una vez confirmada la transacción.
+    public void registrar(Pais pais) {
+        Pais copia = copiar(pais);
+        Transacciones.despuesDelCommit(() -> {
+            synchronized (this) {
+                generacion++;
+                poner(copia);
+            }
+        });
+    }
+
+    // Refleja la eliminación de un país una vez confirmada la transacción.
+    public void invalidar(Long id) {
+        Transacciones.despuesDelCommit(() -> {
+            synchronized (this) {
+                generacion++;
+                Pais anterior = porId.remove(id);
+                if (anterior != null) {
+                    porNombre.remove(anterior.getNombre());
+                }
+            }
+        });
+    }
+
+    // Un país cambió en cualquier instancia (lo avisa el feed de cambios; null: todos). Se quita su entrada y la
+    // caché deja de considerarse completa, así la próxima búsqueda o el próximo listado lo leen de la base de datos.
+    public synchronized void descartar(Long id) {
+        generacion++;
+        completa = false;
+        if (id == null) {
+            porId.clear();
+            porNombre.clear();
+            return;
+        }
+        Pais anterior = porId.remove(id);
+        if (anterior != null) {
+            porNombre.remove(anterior.getNombre());
+        }
+    }
+
+    public synchronized EstadisticasCacheDTO estadisticas() {
+        long a = aciertos.get();
+        long f = fallos.get();
+        return EstadisticasCacheDTO.builder()
+                .aciertos(a)
+                .fallos(f)
+                .desalojos(desalojos.get())
+                .entradas(porId.size())
+                .maxEntradas(maxEntradas)
+                .completa(completa)
+                .tasaAciertos(a + f == 0 ? 0.0 : (double) a / (a + f))
+                .build();
+    }
+
+    private synchronized void guardarSiVigente(List<Pais> paises, long generacionInicial) {
+        if (generacion == generacionInicial) {
+            paises.forEach(this::poner);
+        }
+    }
+
+    // Debe llamarse con el monitor tomado.
+    private void poner(Pais pais) {
+        Pais anterior = porId.get(pais.getId());
+        if (anterior != null) {
+            porNombre.remove(anterior.getNombre()); // El nombre pudo cambiar
+        }
+        Pais copia = copiar(pais);
+        porId.put(copia.getId(), copia);
+        porNombre.put(copia.getNombre(), copia.getId());
+    }
+
+    private static Pais copiar(Pais pais) {
+        return Pais.builder()
+                .id(pais.getId())
+                .nombre(pais.getNombre())
+                .version(pais.getVersion()) // Sin versión, Hibernate trataría la copia como una entidad nueva
+                .build();
+    }
+}
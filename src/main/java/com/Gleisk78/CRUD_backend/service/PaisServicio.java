@@ -1,5 +1,8 @@
 package com.Gleisk78.CRUD_backend.service;
 
+import com.Gleisk78.CRUD_backend.dto.EstadisticasCacheDTO;
+import com.Gleisk78.CRUD_backend.dto.PaginaCursor;
+import com.Gleisk78.CRUD_backend.dto.PaisPatchDTO;
 import com.Gleisk78.CRUD_backend.entity.Pais;
 
 import java.util.List;
@@ -9,11 +12,24 @@ public interface PaisServicio {
 
     List<Pais> getAllPaises();
 
+    PaginaCursor<Pais> getPaisesPagina(Long after, Integer limit);
+
     Optional<Pais> getPaisById(Long id);
 
+    Optional<Pais> getPaisByNombre(String nombre);
+
     Pais createPais(Pais pais);
 
-    Pais updatePais(Long id, Pais pais);
+    // 'versionEsperada' viene de If-Match; si es null la actualización no se condiciona a una versión.
+    Pais updatePais(Long id, Pais pais, Long versionEsperada);
+
+    // Actualización parcial con una sola sentencia UPDATE; solo cambia los campos no nulos de 'cambios'.
+    Pais patchPais(Long id, PaisPatchDTO cambios, Long versionEsperada);
 
     void deletePais(Long id);
+
+    EstadisticasCacheDTO getEstadisticasCache();
+
+    // Versión del listado de países, cambia con cada escritura (base del ETag de GET /api/v1/paises).
+    String getVersionListado();
 }
\ No newline at end of file
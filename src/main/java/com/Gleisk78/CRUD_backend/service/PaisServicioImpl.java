@@ -1,13 +1,22 @@
 package com.Gleisk78.CRUD_backend.service;
 
+import com.Gleisk78.CRUD_backend.dto.EstadisticasCacheDTO;
+import com.Gleisk78.CRUD_backend.dto.PaginaCursor;
+import com.Gleisk78.CRUD_backend.dto.PaisPatchDTO;
 import com.Gleisk78.CRUD_backend.entity.Pais;
-import com.Gleisk78.CRUD_backend.entity.Persona;
+import com.Gleisk78.CRUD_backend.entity.TipoCambio;
+import com.Gleisk78.CRUD_backend.exception.PaisConPersonasException;
+import com.Gleisk78.CRUD_backend.exception.RecursoNoEncontradoException;
+import com.Gleisk78.CRUD_backend.exception.VersionNoCoincideException;
 import com.Gleisk78.CRUD_backend.repository.PaisRepository;
-import com.Gleisk78.CRUD_backend.repository.PersonaRepository;
 import org.slf4j.Logger; // Importamos la interfaz de logger
 import org.slf4j.LoggerFactory; // Importamos la fábrica para obtener el logger
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,27 +28,60 @@ public class PaisServicioImpl implements PaisServicio {
     private static final Logger logger = LoggerFactory.getLogger(PaisServicioImpl.class);
 
     private final PaisRepository paisRepository;
-    private final PersonaRepository personaRepository; // Se inyecta para verificar referencias antes de eliminar
+    private final int limitePorDefecto; // Tamaño de página cuando el cliente no envía 'limit'
+    private final int limiteMaximo; // Tope duro: ninguna petición puede traer más filas que esto
+    private final PaisCache paisCache; // Caché en memoria de países; se mantiene al día en cada escritura
+    private final VersionColecciones versionColecciones; // Versión de los listados para los ETag
+    private final CacheSegundoNivel cacheSegundoNivel; // Desalojo tras las escrituras nativas (PATCH)
+    private final RegistroCambios registroCambios; // Eventos del feed de cambios, en la misma transacción
 
     @Autowired // Inyección de dependencias por constructor (práctica recomendada)
-    public PaisServicioImpl(PaisRepository paisRepository, PersonaRepository personaRepository) {
+    public PaisServicioImpl(PaisRepository paisRepository,
+                            @Value("${app.paginacion.limite-por-defecto:50}") int limitePorDefecto,
+                            @Value("${app.paginacion.limite-maximo:500}") int limiteMaximo,
+                            PaisCache paisCache, VersionColecciones versionColecciones,
+                            CacheSegundoNivel cacheSegundoNivel, RegistroCambios registroCambios) {
         this.paisRepository = paisRepository;
-        this.personaRepository = personaRepository;
+        this.limitePorDefecto = limitePorDefecto;
+        this.limiteMaximo = limiteMaximo;
+        this.paisCache = paisCache;
+        this.versionColecciones = versionColecciones;
+        this.cacheSegundoNivel = cacheSegundoNivel;
+        this.registroCambios = registroCambios;
         logger.info("PaisServicioImpl inicializado y listo para gestionar países.");
     }
 
+    // Las lecturas de países no son readOnly, a propósito: se sirven casi siempre desde PaisCache, que también valida
+    // el país de las escrituras de personas, así que una copia tomada de una réplica atrasada quedaría en memoria más
+    // allá del retraso. La tabla es chica y se carga una vez; a las réplicas no les quitaría casi carga.
     @Override
     public List<Pais> getAllPaises() {
-        logger.info("Solicitando todos los países desde el repositorio.");
-        List<Pais> paises = paisRepository.findAll();
-        logger.debug("Se recuperaron {} países de la base de datos.", paises.size());
+        logger.info("Solicitando todos los países.");
+        Optional<List<Pais>> enCache = paisCache.todos().or(this::cargarTodosEnCache);
+        List<Pais> paises = enCache.orElseGet(paisRepository::findAll);
+        logger.debug("Se recuperaron {} países (desde caché: {}).", paises.size(), enCache.isPresent());
         return paises;
     }
 
+    @Override
+    public PaginaCursor<Pais> getPaisesPagina(Long after, Integer limit) {
+        int limite = Paginacion.limiteEfectivo(limit, limitePorDefecto, limiteMaximo);
+        long cursor = Paginacion.cursorInicial(after);
+        logger.info("Solicitando página de países después del ID {} con límite {}.", cursor, limite);
+        // Si la tabla completa está en caché la página se arma en memoria; si no, se pide a la BD por keyset.
+        // En ambos casos se toma una fila extra para saber si existe una página siguiente sin hacer un COUNT.
+        List<Pais> filas = paisCache.todos().or(this::cargarTodosEnCache)
+                .map(todos -> todos.stream().filter(p -> p.getId() > cursor).limit(limite + 1L).toList())
+                .orElseGet(() -> paisRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(limite + 1)));
+        PaginaCursor<Pais> pagina = Paginacion.construir(filas, limite, Pais::getId);
+        logger.debug("Página de países con {} elementos. Siguiente cursor: {}.", pagina.getItems().size(), pagina.getSiguienteCursor());
+        return pagina;
+    }
+
     @Override
     public Optional<Pais> getPaisById(Long id) {
         logger.info("Buscando país con ID: {}.", id);
-        Optional<Pais> pais = paisRepository.findById(id);
+        Optional<Pais> pais = paisCache.buscarPorId(id, paisRepository::findById);
         if (pais.isPresent()) {
             logger.debug("País con ID {} encontrado: {}.", id, pais.get().getNombre());
         } else {
@@ -49,53 +91,152 @@ public class PaisServicioImpl implements PaisServicio {
     }
 
     @Override
+    public Optional<Pais> getPaisByNombre(String nombre) {
+        logger.info("Buscando país con nombre: {}.", nombre);
+        Optional<Pais> pais = paisCache.buscarPorNombre(nombre, paisRepository::findByNombre);
+        if (pais.isEmpty()) {
+            logger.warn("País con nombre '{}' no encontrado en el repositorio.", nombre);
+        }
+        return pais;
+    }
+
+    @Override
+    public EstadisticasCacheDTO getEstadisticasCache() {
+        return paisCache.estadisticas();
+    }
+
+    @Override
+    @Transactional // El evento del feed de cambios se confirma junto con el país
     public Pais createPais(Pais pais) {
         logger.info("Iniciando creación de un nuevo país: {}.", pais.getNombre());
         // Aquí podrías añadir más lógica de validación antes de guardar
         Pais savedPais = paisRepository.save(pais);
+        paisCache.registrar(savedPais);
+        versionColecciones.registrarCambio(VersionColecciones.PAISES);
+        registroCambios.registrar(VersionColecciones.PAISES, TipoCambio.CREADO, savedPais.getId(), savedPais.getVersion());
         logger.info("País '{}' guardado exitosamente con ID: {}.", savedPais.getNombre(), savedPais.getId());
         return savedPais;
     }
 
     @Override
-    public Pais updatePais(Long id, Pais pais) {
+    @Transactional
+    public Pais updatePais(Long id, Pais pais, Long versionEsperada) {
         logger.info("Intentando actualizar país con ID: {}. Datos recibidos: {}.", id, pais.getNombre());
         Optional<Pais> existingPaisOptional = paisRepository.findById(id);
 
         if (existingPaisOptional.isPresent()) {
             Pais existingPais = existingPaisOptional.get();
             logger.debug("País existente con ID {} encontrado. Preparando actualización.", id);
+            if (versionEsperada != null && !versionEsperada.equals(existingPais.getVersion())) {
+                logger.warn("País con ID {} en versión {}, se esperaba {}. Operación cancelada.", id, existingPais.getVersion(), versionEsperada);
+                throw new VersionNoCoincideException("El país con ID " + id + " fue modificado (versión actual " + existingPais.getVersion() + ").");
+            }
 
             existingPais.setNombre(pais.getNombre()); // Actualiza el nombre
 
-            Pais updatedPais = paisRepository.save(existingPais);
+            // saveAndFlush: la versión se incrementa antes de copiar el país a la caché y a la respuesta.
+            Pais updatedPais = paisRepository.saveAndFlush(existingPais);
+            paisCache.registrar(updatedPais);
+            // El nombre del país aparece en las respuestas de personas, así que su listado también cambia.
+            versionColecciones.registrarCambio(VersionColecciones.PAISES);
+            versionColecciones.registrarCambio(VersionColecciones.PERSONAS);
+            registroCambios.registrar(VersionColecciones.PAISES, TipoCambio.ACTUALIZADO, updatedPais.getId(), updatedPais.getVersion());
+            // Y los clientes del feed de personas deben volver a cargarlo: un evento por persona saturaría el feed.
+            registroCambios.registrar(VersionColecciones.PERSONAS, TipoCambio.RECARGA, null, null);
             logger.info("País con ID {} actualizado exitosamente a: {}.", updatedPais.getId(), updatedPais.getNombre());
             return updatedPais;
         } else {
             logger.error("Fallo al actualizar: País con ID {} no encontrado en la base de datos.", id);
-            throw new RuntimeException("País con ID " + id + " no encontrado para actualizar.");
+            throw new RecursoNoEncontradoException("País con ID " + id + " no encontrado para actualizar.");
         }
     }
 
+    // Actualización parcial en una única sentencia (UPDATE ... RETURNING): sin lectura previa ni dirty checking.
+    // La restricción UNIQUE rechaza un nombre repetido y la condición de versión de If-Match va en el propio UPDATE.
     @Override
+    @Transactional
+    public Pais patchPais(Long id, PaisPatchDTO cambios, Long versionEsperada) {
+        logger.info("Aplicando actualización parcial a país con ID: {}.", id);
+        if (cambios.getNombre() != null && (cambios.getNombre().isBlank() || cambios.getNombre().length() > 100)) {
+            throw new IllegalArgumentException("El nombre no puede estar vacío ni superar los 100 caracteres.");
+        }
+
+        Optional<Pais> resultado;
+        try {
+            resultado = paisRepository.patch(id, cambios.getNombre(), versionEsperada);
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Actualización parcial de país con ID {} rechazada: el nombre '{}' ya existe.", id, cambios.getNombre());
+            throw new IllegalArgumentException("Ya existe un país con el nombre '" + cambios.getNombre() + "'.");
+        }
+
+        if (resultado.isEmpty()) {
+            // No se actualizó nada: solo en este caso averiguamos el motivo para devolver el error adecuado.
+            if (versionEsperada != null && paisRepository.existsById(id)) {
+                logger.warn("País con ID {} no está en la versión {}. Operación cancelada.", id, versionEsperada);
+                throw new VersionNoCoincideException("El país con ID " + id + " fue modificado (se esperaba la versión " + versionEsperada + ").");
+            }
+            logger.error("Fallo al actualizar: País con ID {} no encontrado en la base de datos.", id);
+            throw new RecursoNoEncontradoException("País con ID " + id + " no encontrado para actualizar.");
+        }
+
+        Pais updatedPais = resultado.get();
+        paisCache.registrar(updatedPais);
+        cacheSegundoNivel.desalojarPais(id);
+        versionColecciones.registrarCambio(VersionColecciones.PAISES);
+        versionColecciones.registrarCambio(VersionColecciones.PERSONAS);
+        registroCambios.registrar(VersionColecciones.PAISES, TipoCambio.ACTUALIZADO, id, updatedPais.getVersion());
+        registroCambios.registrar(VersionColecciones.PERSONAS, TipoCambio.RECARGA, null, null); // Ver updatePais
+        logger.info("País con ID {} actualizado parcialmente a la versión {}.", id, updatedPais.getVersion());
+        return updatedPais;
+    }
+
+    @Override
+    @Transactional
     public void deletePais(Long id) {
         logger.info("Intentando eliminar país con ID: {}.", id);
 
-        // Lógica clave: verificar si hay personas asociadas antes de eliminar el país.
-        List<Persona> personasAsociadas = personaRepository.findByPaisId(id);
-
-        if (!personasAsociadas.isEmpty()) {
-            logger.warn("No se puede eliminar el país con ID {} porque tiene {} personas asociadas. Operación cancelada.", id, personasAsociadas.size());
-            throw new RuntimeException("No se puede eliminar el país con ID " + id + " porque tiene personas asociadas. Elimina las personas primero.");
+        // Lógica clave: el país solo se elimina si no tiene personas asociadas. Ambas cosas se resuelven
+        // en una única sentencia DELETE ... WHERE NOT EXISTS, que usa el índice de personas.id_pais.
+        int eliminados;
+        try {
+            eliminados = paisRepository.deleteByIdSinPersonas(id);
+        } catch (DataIntegrityViolationException e) {
+            // Otra transacción insertó una persona de este país mientras se eliminaba: la FK lo impidió.
+            logger.warn("No se puede eliminar el país con ID {}: se asoció una persona durante la eliminación.", id);
+            throw new PaisConPersonasException("No se puede eliminar el país con ID " + id + " porque tiene personas asociadas. Elimina las personas primero.");
         }
 
-        // Si no hay personas asociadas, procedemos a verificar la existencia y eliminar.
-        if (paisRepository.existsById(id)) {
-            paisRepository.deleteById(id);
+        if (eliminados == 1) {
+            paisCache.invalidar(id);
+            versionColecciones.registrarCambio(VersionColecciones.PAISES);
+            registroCambios.registrar(VersionColecciones.PAISES, TipoCambio.ELIMINADO, id, null); // DELETE nativo: sin versión
             logger.info("País con ID {} eliminado exitosamente del repositorio.", id);
-        } else {
+            return;
+        }
+
+        // No se eliminó nada: solo en este caso averiguamos el motivo para devolver el error adecuado.
+        if (!paisRepository.existsById(id)) {
             logger.warn("No se pudo eliminar: País con ID {} no encontrado en la base de datos.", id);
-            throw new RuntimeException("País con ID " + id + " no encontrado para eliminar.");
+            throw new RecursoNoEncontradoException("País con ID " + id + " no encontrado para eliminar.");
+        }
+        logger.warn("No se puede eliminar el país con ID {} porque tiene personas asociadas. Operación cancelada.", id);
+        throw new PaisConPersonasException("No se puede eliminar el país con ID " + id + " porque tiene personas asociadas. Elimina las personas primero.");
+    }
+
+    @Override
+    public String getVersionListado() {
+        return versionColecciones.version(VersionColecciones.PAISES);
+    }
+
+    // Carga todos los países en la caché si caben en ella (dos consultas, solo tras un fallo de caché).
+    // Devuelve vacío si la tabla es más grande que la caché.
+    private Optional<List<Pais>> cargarTodosEnCache() {
+        long generacion = paisCache.generacion();
+        if (paisRepository.count() > paisCache.maxEntradas()) {
+            return Optional.empty();
         }
+        List<Pais> paises = paisRepository.findAll();
+        paisCache.cargarTodos(paises, generacion);
+        return Optional.of(paises);
     }
-}
\ No newline at end of file
+}
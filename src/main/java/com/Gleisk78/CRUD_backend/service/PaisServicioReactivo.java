@@ -0,0 +1,19 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.dto.PaginaCursor;
+import com.Gleisk78.CRUD_backend.entity.Pais;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Lecturas de países sin bloquear hilos (R2DBC). Mismas respuestas que PaisServicio; las escrituras siguen en JPA.
+public interface PaisServicioReactivo {
+
+    Mono<PaginaCursor<Pais>> getPaisesPagina(Long after, Integer limit);
+
+    Mono<Pais> getPaisById(Long id);
+
+    Flux<Pais> streamPaises();
+
+    // Versión del listado (la misma que usa PaisServicio para el ETag), leída con R2DBC.
+    Mono<String> getVersionListado();
+}
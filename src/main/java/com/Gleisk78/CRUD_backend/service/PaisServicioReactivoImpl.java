@@ -0,0 +1,84 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.dto.PaginaCursor;
+import com.Gleisk78.CRUD_backend.entity.Pais;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Lecturas de países con R2DBC. Si la tabla completa está en PaisCache se responde desde memoria, como en el acceso
+// JPA; si no, se consulta la BD. Este camino no llena la caché: lo que se carga en ella debe venir de la primaria
+// (ver PaisServicioImpl) y app.reactivo.url puede apuntar a una réplica.
+@Service
+public class PaisServicioReactivoImpl implements PaisServicioReactivo {
+
+    private static final String SELECT_PAIS = "SELECT id_pais, nombre, version FROM paises ";
+
+    private final DatabaseClient databaseClient;
+    private final PaisCache paisCache;
+    private final int limitePorDefecto; // Tamaño de página cuando el cliente no envía 'limit'
+    private final int limiteMaximo; // Tope duro: ninguna petición puede traer más filas que esto
+    private final VersionColecciones versionColecciones; // Versión de los listados para los ETag
+
+    @Autowired
+    public PaisServicioReactivoImpl(DatabaseClient databaseClient, PaisCache paisCache,
+                                    @Value("${app.paginacion.limite-por-defecto:50}") int limitePorDefecto,
+                                    @Value("${app.paginacion.limite-maximo:500}") int limiteMaximo,
+                                    VersionColecciones versionColecciones) {
+        this.databaseClient = databaseClient;
+        this.paisCache = paisCache;
+        this.limitePorDefecto = limitePorDefecto;
+        this.limiteMaximo = limiteMaximo;
+        this.versionColecciones = versionColecciones;
+    }
+
+    @Override
+    public Mono<PaginaCursor<Pais>> getPaisesPagina(Long after, Integer limit) {
+        int limite = Paginacion.limiteEfectivo(limit, limitePorDefecto, limiteMaximo);
+        long cursor = Paginacion.cursorInicial(after);
+        Mono<List<Pais>> filas = Mono.justOrEmpty(paisCache.todos())
+                .map(todos -> todos.stream().filter(p -> p.getId() > cursor).limit(limite + 1L).toList())
+                .switchIfEmpty(Mono.defer(() -> databaseClient
+                        .sql(SELECT_PAIS + "WHERE id_pais > :after ORDER BY id_pais LIMIT :limite")
+                        .bind("after", cursor)
+                        .bind("limite", limite + 1)
+                        .map(PaisServicioReactivoImpl::aPais)
+                        .all()
+                        .collectList()));
+        return filas.map(lista -> Paginacion.construir(lista, limite, Pais::getId));
+    }
+
+    @Override
+    public Mono<Pais> getPaisById(Long id) {
+        return Mono.justOrEmpty(paisCache.todos())
+                .flatMap(todos -> Mono.justOrEmpty(todos.stream().filter(p -> p.getId().equals(id)).findFirst()))
+                .switchIfEmpty(Mono.defer(() -> databaseClient.sql(SELECT_PAIS + "WHERE id_pais = :id")
+                        .bind("id", id)
+                        .map(PaisServicioReactivoImpl::aPais)
+                        .one()));
+    }
+
+    @Override
+    public Flux<Pais> streamPaises() {
+        return Mono.justOrEmpty(paisCache.todos())
+                .flatMapMany(Flux::fromIterable)
+                .switchIfEmpty(Flux.defer(() -> databaseClient.sql(SELECT_PAIS + "ORDER BY id_pais")
+                        .map(PaisServicioReactivoImpl::aPais)
+                        .all()));
+    }
+
+    @Override
+    public Mono<String> getVersionListado() {
+        return versionColecciones.versionReactiva(VersionColecciones.PAISES);
+    }
+
+    private static Pais aPais(Readable fila) {
+        return new Pais(fila.get("id_pais", Long.class), fila.get("nombre", String.class), fila.get("version", Long.class));
+    }
+}
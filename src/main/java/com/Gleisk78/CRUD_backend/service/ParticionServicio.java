@@ -0,0 +1,22 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.dto.ParticionDTO;
+
+import java.util.List;
+
+public interface ParticionServicio {
+
+    List<ParticionDTO> getParticiones();
+
+    // Crea la partición del país y mueve a ella sus personas, que hasta entonces estaban en la DEFAULT.
+    ParticionDTO crearParticion(Long paisId);
+
+    // Separa la partición del país de personas: sus filas quedan en la tabla pero dejan de verse en la API.
+    ParticionDTO desvincularParticion(Long paisId);
+
+    // Devuelve a personas una partición desvinculada o archivada.
+    ParticionDTO vincularParticion(Long paisId);
+
+    // Desvincula la partición (si hace falta) y la mueve al esquema 'archivo', listo para respaldar o eliminar.
+    ParticionDTO archivarParticion(Long paisId);
+}
@@ -0,0 +1,240 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.dto.ParticionDTO;
+import com.Gleisk78.CRUD_backend.entity.TipoCambio;
+import com.Gleisk78.CRUD_backend.exception.RecursoNoEncontradoException;
+import com.Gleisk78.CRUD_backend.exception.ServicioSaturadoException;
+import com.Gleisk78.CRUD_backend.repository.PaisRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+// Mantenimiento de las particiones de personas (particionada por lista de id_pais, ver V7__personas_particionada.sql).
+// Cada país puede tener su propia tabla personas_p{id}; las personas de los países sin partición quedan en
+// personas_default. Las consultas con id_pais (personas de un país, estadísticas, borrado de países) leen una sola
+// partición, y VACUUM y los índices trabajan por país en lugar de sobre una tabla enorme.
+//
+// Todas las operaciones son DDL dentro de una transacción con lock_timeout: si otra sentencia larga tiene tomada la
+// tabla, la operación falla enseguida (503) en lugar de quedar esperando y frenar detrás suyo a toda la API.
+@Service
+public class ParticionServicioImpl implements ParticionServicio {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParticionServicioImpl.class);
+
+    static final String PARTICION_DEFAULT = "personas_default";
+    static final String ESQUEMA_ARCHIVO = "archivo";
+    private static final String LOCK_NOT_AVAILABLE = "55P03"; // SQLState de lock_timeout agotado
+    private static final String DUPLICATE_TABLE = "42P07"; // SQLState de CREATE TABLE o SET SCHEMA con un nombre ya usado
+    private static final String COLUMNAS = "id_persona, nombre, edad, id_pais, version";
+
+    private static final String LISTAR =
+            "SELECT n.nspname AS esquema, c.relname AS tabla, c.relispartition AS vinculada, " +
+            "GREATEST(c.reltuples, 0)::bigint AS filas, pg_total_relation_size(c.oid) AS bytes " +
+            "FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE c.relkind = 'r' AND n.nspname IN ('public', '" + ESQUEMA_ARCHIVO + "') " +
+            "AND (c.relname = '" + PARTICION_DEFAULT + "' OR c.relname ~ '^personas_p[0-9]+$')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PaisRepository paisRepository;
+    private final EstadisticasPaisServicio estadisticasPaisServicio;
+    private final VersionColecciones versionColecciones;
+    private final CacheSegundoNivel cacheSegundoNivel;
+    private final RegistroCambios registroCambios;
+    private final long esperaBloqueoMs; // lock_timeout de cada operación
+
+    @Autowired
+    public ParticionServicioImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 PaisRepository paisRepository, EstadisticasPaisServicio estadisticasPaisServicio,
+                                 VersionColecciones versionColecciones, CacheSegundoNivel cacheSegundoNivel,
+                                 RegistroCambios registroCambios,
+                                 @Value("${app.particiones.espera-bloqueo:5s}") Duration esperaBloqueo) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.paisRepository = paisRepository;
+        this.estadisticasPaisServicio = estadisticasPaisServicio;
+        this.versionColecciones = versionColecciones;
+        this.cacheSegundoNivel = cacheSegundoNivel;
+        this.registroCambios = registroCambios;
+        this.esperaBloqueoMs = esperaBloqueo.toMillis();
+    }
+
+    @Override
+    public List<ParticionDTO> getParticiones() {
+        return jdbcTemplate.query(LISTAR, (fila, numero) -> {
+                    String tabla = fila.getString("tabla");
+                    Long paisId = PARTICION_DEFAULT.equals(tabla) ? null : Long.valueOf(tabla.substring("personas_p".length()));
+                    return ParticionDTO.builder()
+                            .tabla(fila.getString("esquema") + "." + tabla)
+                            .paisId(paisId)
+                            .estado(estado(paisId, fila.getString("esquema"), fila.getBoolean("vinculada")))
+                            .filasEstimadas(fila.getLong("filas"))
+                            .bytes(fila.getLong("bytes"))
+                            .build();
+                }).stream()
+                .sorted(Comparator.comparing(ParticionDTO::getPaisId, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    // Mientras personas_default sea grande, esta operación la recorre entera con un bloqueo exclusivo (PostgreSQL
+    // debe comprobar que ya no quedan filas del país). La separación inicial conviene hacerla en una ventana de
+    // mantenimiento, empezando por los países con más personas; con la DEFAULT vacía es instantánea.
+    @Override
+    public ParticionDTO crearParticion(Long paisId) {
+        if (!paisRepository.existsById(paisId)) {
+            throw new RecursoNoEncontradoException("País no encontrado con ID: " + paisId);
+        }
+        String tabla = tabla(paisId);
+        ejecutar(paisId, "crear", () -> {
+            if (ubicar(paisId).isPresent()) {
+                throw new IllegalStateException("El país " + paisId + " ya tiene partición.");
+            }
+            jdbcTemplate.execute("CREATE TABLE " + tabla + " (LIKE personas INCLUDING DEFAULTS)");
+            // Con esta restricción el ATTACH no necesita recorrer la partición nueva para validarla
+            jdbcTemplate.execute("ALTER TABLE " + tabla + " ADD CONSTRAINT " + tabla + "_id_pais CHECK (id_pais = " + paisId + ")");
+            incorporar(paisId, tabla);
+        });
+        return particion(paisId);
+    }
+
+    @Override
+    public ParticionDTO desvincularParticion(Long paisId) {
+        ejecutar(paisId, "desvincular", () -> {
+            Ubicacion ubicacion = ubicar(paisId).orElseThrow(() -> sinParticion(paisId));
+            if (!ubicacion.vinculada()) {
+                throw new IllegalStateException("La partición del país " + paisId + " ya está desvinculada.");
+            }
+            separar(paisId);
+        });
+        return particion(paisId);
+    }
+
+    @Override
+    public ParticionDTO vincularParticion(Long paisId) {
+        ejecutar(paisId, "vincular", () -> {
+            Ubicacion ubicacion = ubicar(paisId).orElseThrow(() -> sinParticion(paisId));
+            if (ubicacion.vinculada()) {
+                throw new IllegalStateException("La partición del país " + paisId + " ya está vinculada.");
+            }
+            if (ESQUEMA_ARCHIVO.equals(ubicacion.esquema())) {
+                jdbcTemplate.execute("ALTER TABLE " + ESQUEMA_ARCHIVO + "." + tabla(paisId) + " SET SCHEMA public");
+            }
+            incorporar(paisId, tabla(paisId));
+        });
+        return particion(paisId);
+    }
+
+    @Override
+    public ParticionDTO archivarParticion(Long paisId) {
+        ejecutar(paisId, "archivar", () -> {
+            Ubicacion ubicacion = ubicar(paisId).orElseThrow(() -> sinParticion(paisId));
+            if (ESQUEMA_ARCHIVO.equals(ubicacion.esquema())) {
+                throw new IllegalStateException("La partición del país " + paisId + " ya está archivada.");
+            }
+            if (ubicacion.vinculada()) {
+                separar(paisId);
+            }
+            jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + ESQUEMA_ARCHIVO);
+            jdbcTemplate.execute("ALTER TABLE " + tabla(paisId) + " SET SCHEMA " + ESQUEMA_ARCHIVO);
+        });
+        return particion(paisId);
+    }
+
+    // Mueve a la partición las personas del país que estén en la DEFAULT (todas, si recién se crea; las agregadas
+    // mientras estuvo desvinculada, si vuelve) y la adjunta a personas. Los IDs no chocan: salen de la misma secuencia.
+    private void incorporar(Long paisId, String tabla) {
+        int movidas = jdbcTemplate.update("WITH movidas AS (DELETE FROM " + PARTICION_DEFAULT + " WHERE id_pais = ? " +
+                "RETURNING " + COLUMNAS + ") INSERT INTO " + tabla + " (" + COLUMNAS + ") SELECT " + COLUMNAS + " FROM movidas", paisId);
+        jdbcTemplate.execute("ALTER TABLE personas ATTACH PARTITION " + tabla + " FOR VALUES IN (" + paisId + ")");
+        logger.info("Partición {} adjuntada; {} personas movidas desde {}.", tabla, movidas, PARTICION_DEFAULT);
+        registrarCambio();
+    }
+
+    // Sin recorrer filas: solo cambia el catálogo. Desde aquí las personas nuevas del país van a la DEFAULT.
+    private void separar(Long paisId) {
+        jdbcTemplate.execute("ALTER TABLE personas DETACH PARTITION " + tabla(paisId));
+        logger.info("Partición {} desvinculada.", tabla(paisId));
+        registrarCambio();
+    }
+
+    // Personas aparecieron o desaparecieron en bloque: listados, ETag, caché y clientes del feed deben recargar.
+    private void registrarCambio() {
+        versionColecciones.registrarCambio(VersionColecciones.PERSONAS);
+        cacheSegundoNivel.desalojarPersonas();
+        registroCambios.registrar(VersionColecciones.PERSONAS, TipoCambio.RECARGA, null, null);
+    }
+
+    private void ejecutar(Long paisId, String operacion, Runnable ddl) {
+        logger.info("Partición del país {}: {}.", paisId, operacion);
+        try {
+            transactionTemplate.executeWithoutResult(estado -> {
+                jdbcTemplate.execute("SET LOCAL lock_timeout = " + esperaBloqueoMs);
+                ddl.run();
+                // ATTACH y DETACH no disparan los triggers de personas: las estadísticas del país se recuentan en la
+                // misma transacción (solo su partición, o nada si se desvinculó)
+                estadisticasPaisServicio.reconstruir(paisId);
+            });
+        } catch (DataAccessException e) {
+            // Spring no traduce estos SQLState de PostgreSQL a excepciones propias: se reconocen por el código
+            String sqlState = e.getMostSpecificCause() instanceof SQLException sql ? sql.getSQLState() : null;
+            if (LOCK_NOT_AVAILABLE.equals(sqlState)) {
+                logger.warn("No se pudo {} la partición del país {}: tabla ocupada ({}).", operacion, paisId, e.getMessage());
+                throw new ServicioSaturadoException("La tabla de personas está ocupada, intenta nuevamente en unos segundos.");
+            }
+            if (DUPLICATE_TABLE.equals(sqlState)) {
+                // Otra petición creó (o movió) la misma tabla después de nuestra comprobación: el estado ya cambió (409)
+                logger.warn("No se pudo {} la partición del país {}: otra operación la modificó ({}).", operacion, paisId, e.getMessage());
+                throw new IllegalStateException("La partición del país " + paisId + " fue modificada por otra operación en curso.", e);
+            }
+            throw e;
+        }
+    }
+
+    private ParticionDTO particion(Long paisId) {
+        return getParticiones().stream()
+                .filter(p -> paisId.equals(p.getPaisId()))
+                .findFirst()
+                .orElseThrow(() -> sinParticion(paisId));
+    }
+
+    private Optional<Ubicacion> ubicar(Long paisId) {
+        return jdbcTemplate.query("SELECT n.nspname, c.relispartition FROM pg_class c " +
+                        "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                        "WHERE c.relkind = 'r' AND c.relname = ? AND n.nspname IN ('public', '" + ESQUEMA_ARCHIVO + "')",
+                (fila, numero) -> new Ubicacion(fila.getString(1), fila.getBoolean(2)), tabla(paisId)).stream().findFirst();
+    }
+
+    private static String estado(Long paisId, String esquema, boolean vinculada) {
+        if (paisId == null) {
+            return "DEFAULT";
+        }
+        if (ESQUEMA_ARCHIVO.equals(esquema)) {
+            return "ARCHIVADA";
+        }
+        return vinculada ? "VINCULADA" : "DESVINCULADA";
+    }
+
+    // El ID es numérico (Long), así que puede ir en el nombre de la tabla sin riesgo de inyección
+    static String tabla(Long paisId) {
+        return "personas_p" + paisId;
+    }
+
+    private static RecursoNoEncontradoException sinParticion(Long paisId) {
+        return new RecursoNoEncontradoException("El país " + paisId + " no tiene partición.");
+    }
+
+    private record Ubicacion(String esquema, boolean vinculada) {
+    }
+}
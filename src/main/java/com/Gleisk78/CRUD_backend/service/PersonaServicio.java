@@ -1,19 +1,40 @@
 package com.Gleisk78.CRUD_backend.service;
 
+import com.Gleisk78.CRUD_backend.dto.PaginaCursor;
+import com.Gleisk78.CRUD_backend.dto.PersonaDTO;
+import com.Gleisk78.CRUD_backend.dto.PersonaPatchDTO;
+import com.Gleisk78.CRUD_backend.dto.ResultadoBusquedaPersona;
+import com.Gleisk78.CRUD_backend.dto.ResultadoLote;
 import com.Gleisk78.CRUD_backend.entity.Persona;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
 public interface PersonaServicio {
 
-    List<Persona> getAllPersonas();
+    PaginaCursor<PersonaDTO> getPersonasPagina(Long paisId, Long after, Integer limit);
 
-    Optional<Persona> getPersonaById(Long id);
+    Optional<PersonaDTO> getPersonaById(Long id);
+
+    PaginaCursor<ResultadoBusquedaPersona> buscarPersonas(String texto, Long paisId, Integer edadMin, Integer edadMax,
+                                                         Long after, Integer limit);
 
     Persona createPersona(Persona persona);
 
-    Persona updatePersona(Long id, Persona persona);
+    ResultadoLote crearPersonasEnLote(List<Persona> personas);
+
+    // 'versionEsperada' viene de If-Match; si es null la actualización no se condiciona a una versión.
+    Persona updatePersona(Long id, Persona persona, Long versionEsperada);
+
+    // Actualización parcial con una sola sentencia UPDATE; solo cambia los campos no nulos de 'cambios'.
+    PersonaDTO patchPersona(Long id, PersonaPatchDTO cambios, Long versionEsperada);
 
     void deletePersona(Long id);
+
+    long exportarPersonas(OutputStream salida, FormatoExportacion formato) throws IOException;
+
+    // Versión del listado de personas, cambia con cada escritura (base del ETag de GET /api/v1/personas).
+    String getVersionListado();
 }
\ No newline at end of file
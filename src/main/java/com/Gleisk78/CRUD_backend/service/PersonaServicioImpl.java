@@ -1,45 +1,130 @@
 package com.Gleisk78.CRUD_backend.service;
 
+import com.Gleisk78.CRUD_backend.dto.PaginaCursor;
+import com.Gleisk78.CRUD_backend.dto.PersonaDTO;
+import com.Gleisk78.CRUD_backend.dto.PersonaPatchDTO;
+import com.Gleisk78.CRUD_backend.dto.ResultadoBusquedaPersona;
+import com.Gleisk78.CRUD_backend.dto.ResultadoItemLote;
+import com.Gleisk78.CRUD_backend.dto.ResultadoLote;
+import com.Gleisk78.CRUD_backend.dto.ResultadoPatchPersona;
 import com.Gleisk78.CRUD_backend.entity.Pais;
 import com.Gleisk78.CRUD_backend.entity.Persona;
+import com.Gleisk78.CRUD_backend.entity.TipoCambio;
+import com.Gleisk78.CRUD_backend.exception.RecursoNoEncontradoException;
+import com.Gleisk78.CRUD_backend.exception.VersionNoCoincideException;
 import com.Gleisk78.CRUD_backend.repository.PaisRepository;
 import com.Gleisk78.CRUD_backend.repository.PersonaRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger; // Importamos la interfaz de logger
 import org.slf4j.LoggerFactory; // Importamos la fábrica para obtener el logger
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service // Marca esta clase como un componente de servicio de Spring
 public class PersonaServicioImpl implements PersonaServicio {
 
     // Inicializamos el logger para esta clase, nos ayudará a ver qué está pasando en la lógica de negocio.
     private static final Logger logger = LoggerFactory.getLogger(PersonaServicioImpl.class);
+    private static final String FOREIGN_KEY_VIOLATION = "23503"; // SQLState de PostgreSQL: id_pais inexistente
 
     private final PersonaRepository personaRepository;
     private final PaisRepository paisRepository;
+    private final PaisCache paisCache; // Valida países sin ir a la base de datos en cada escritura
+    private final VersionColecciones versionColecciones; // Versión del listado para los ETag
+    private final CacheSegundoNivel cacheSegundoNivel; // Desalojo tras las escrituras nativas (PATCH)
+    private final RegistroCambios registroCambios; // Eventos del feed de cambios, en la misma transacción
+    private final int limitePorDefecto; // Tamaño de página cuando el cliente no envía 'limit'
+    private final int limiteMaximo; // Tope duro: ninguna petición puede traer más filas que esto
+    private final EntityManager entityManager; // Para desacoplar entidades durante la exportación
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter personaWriter; // Writer pre-construido: evita resolver el serializador en cada fila
+    private final JsonFactory fabricaSmile = new SmileFactory(); // Generadores de la exportación binaria
+    private final JsonFactory fabricaCbor = new CBORFactory();
+    private final int intervaloLimpiezaExport; // Cada cuántas filas se vacía el contexto de persistencia al exportar
+    private final int tamanoLoteJdbc; // Filas por lote JDBC; coincide con hibernate.jdbc.batch_size
+    private final int maximoPorLote; // Máximo de personas aceptadas en una sola petición de creación por lotes
+    private final int maximoResultadosBusqueda; // Profundidad máxima (desplazamiento + límite) de una búsqueda
 
     @Autowired // Inyección de dependencias por constructor (práctica recomendada)
-    public PersonaServicioImpl(PersonaRepository personaRepository, PaisRepository paisRepository) {
+    public PersonaServicioImpl(PersonaRepository personaRepository, PaisRepository paisRepository,
+                               @Value("${app.paginacion.limite-por-defecto:50}") int limitePorDefecto,
+                               @Value("${app.paginacion.limite-maximo:500}") int limiteMaximo,
+                               EntityManager entityManager, ObjectMapper objectMapper,
+                               @Value("${app.export.intervalo-limpieza:1000}") int intervaloLimpiezaExport,
+                               @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int tamanoLoteJdbc,
+                               @Value("${app.lote.maximo:10000}") int maximoPorLote,
+                               @Value("${app.busqueda.max-resultados:1000}") int maximoResultadosBusqueda,
+                               PaisCache paisCache, VersionColecciones versionColecciones,
+                               CacheSegundoNivel cacheSegundoNivel, RegistroCambios registroCambios) {
         this.personaRepository = personaRepository;
         this.paisRepository = paisRepository;
+        this.limitePorDefecto = limitePorDefecto;
+        this.limiteMaximo = limiteMaximo;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.personaWriter = objectMapper.writerFor(PersonaDTO.class);
+        this.intervaloLimpiezaExport = intervaloLimpiezaExport;
+        this.tamanoLoteJdbc = tamanoLoteJdbc;
+        this.maximoPorLote = maximoPorLote;
+        this.maximoResultadosBusqueda = maximoResultadosBusqueda;
+        this.paisCache = paisCache;
+        this.versionColecciones = versionColecciones;
+        this.cacheSegundoNivel = cacheSegundoNivel;
+        this.registroCambios = registroCambios;
         logger.info("PersonaServicioImpl inicializado y listo para gestionar personas.");
     }
 
+    // Las lecturas son transacciones de solo lectura: con réplicas habilitadas (app.replicas.habilitado) se
+    // atienden desde una réplica sana; sin ellas, Hibernate omite el flush y el chequeo de cambios.
+    // Lo que se lee de una réplica no se guarda en la caché de segundo nivel ni en la de consultas (ver
+    // CacheSegundoNivel.noLlenarDesdeReplicas), aunque sí se sirve lo que ya está en ellas.
     @Override
-    public List<Persona> getAllPersonas() {
-        logger.info("Solicitando todas las personas desde el repositorio.");
-        List<Persona> personas = (List<Persona>) personaRepository.findAll();
-        logger.debug("Se recuperaron {} personas de la base de datos.", personas.size());
-        return personas;
+    @Transactional(readOnly = true)
+    public PaginaCursor<PersonaDTO> getPersonasPagina(Long paisId, Long after, Integer limit) {
+        cacheSegundoNivel.noLlenarDesdeReplicas();
+        int limite = Paginacion.limiteEfectivo(limit, limitePorDefecto, limiteMaximo);
+        long cursor = Paginacion.cursorInicial(after);
+        logger.info("Solicitando página de personas (paisId={}) después del ID {} con límite {}.", paisId, cursor, limite);
+        // Pedimos una fila extra para saber si existe una página siguiente sin hacer un COUNT.
+        List<PersonaDTO> filas = paisId == null
+                ? personaRepository.findPagina(cursor, Limit.of(limite + 1))
+                : personaRepository.findByPaisId(paisId, cursor, Limit.of(limite + 1));
+        PaginaCursor<PersonaDTO> pagina = Paginacion.construir(filas, limite, PersonaDTO::getId);
+        logger.debug("Página de personas con {} elementos. Siguiente cursor: {}.", pagina.getItems().size(), pagina.getSiguienteCursor());
+        return pagina;
     }
 
+    // Lectura por entidad y no por proyección: la persona y su país se resuelven desde la caché de segundo nivel,
+    // así que una persona consultada con frecuencia no genera SQL hasta que cambia o expira su entrada.
     @Override
-    public Optional<Persona> getPersonaById(Long id) {
+    @Transactional(readOnly = true)
+    public Optional<PersonaDTO> getPersonaById(Long id) {
         logger.info("Buscando persona con ID: {}.", id);
-        Optional<Persona> persona = personaRepository.findById(id);
+        cacheSegundoNivel.noLlenarDesdeReplicas();
+        Optional<PersonaDTO> persona = buscarPersona(id).map(PersonaDTO::desde);
         if (persona.isPresent()) {
             logger.debug("Persona con ID {} encontrada: {}.", id, persona.get().getNombre()); // Asumiendo que Persona tiene getNombre()
         } else {
@@ -48,71 +133,350 @@ public class PersonaServicioImpl implements PersonaServicio {
         return persona;
     }
 
+    // Búsqueda por nombre servida por el índice de trigramas de PostgreSQL (ver PersonaRepository.buscarPorNombre).
+    // La paginación es por desplazamiento porque el orden es por relevancia; la profundidad está acotada para
+    // que ninguna página obligue a ordenar un número ilimitado de coincidencias.
     @Override
+    @Transactional(readOnly = true)
+    public PaginaCursor<ResultadoBusquedaPersona> buscarPersonas(String texto, Long paisId, Integer edadMin, Integer edadMax,
+                                                                Long after, Integer limit) {
+        String normalizado = texto == null ? "" : texto.strip();
+        if (normalizado.length() < 2) {
+            throw new IllegalArgumentException("El texto a buscar debe tener al menos 2 caracteres.");
+        }
+        int limite = Paginacion.limiteEfectivo(limit, limitePorDefecto, limiteMaximo);
+        // El cursor se valida como long antes de reducirlo a int: un valor enorme no debe truncarse a uno válido
+        long cursor = Paginacion.cursorInicial(after);
+        if (cursor < 0 || cursor > maximoResultadosBusqueda - limite) {
+            throw new IllegalArgumentException("La búsqueda solo permite recorrer los primeros " + maximoResultadosBusqueda + " resultados.");
+        }
+        int desplazamiento = (int) cursor;
+        boolean filtrarEdad = edadMin != null || edadMax != null;
+        logger.info("Buscando personas por '{}' (paisId={}, edad {}-{}, desde {}, límite {}).",
+                normalizado, paisId, edadMin, edadMax, desplazamiento, limite);
+
+        List<ResultadoBusquedaPersona> filas = personaRepository.buscarPorNombre(
+                escaparLike(normalizado),
+                paisId == null ? 0L : paisId,
+                filtrarEdad,
+                edadMin == null ? Integer.MIN_VALUE : edadMin,
+                edadMax == null ? Integer.MAX_VALUE : edadMax,
+                limite + 1,
+                desplazamiento);
+        PaginaCursor<ResultadoBusquedaPersona> pagina = Paginacion.construirPorDesplazamiento(filas, limite, desplazamiento);
+        logger.debug("Búsqueda '{}' devolvió {} resultados. Hay más: {}.", normalizado, pagina.getItems().size(), pagina.isHayMas());
+        return pagina;
+    }
+
+    // Los caracteres especiales de LIKE en el texto del usuario se buscan literalmente.
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    @Override
+    @Transactional
     public Persona createPersona(Persona persona) {
         logger.info("Iniciando creación de una nueva persona: {}.", persona.getNombre()); // Asumiendo que Persona tiene getNombre()
 
         // Verificamos que el país asociado no sea nulo antes de buscarlo.
         if (persona.getPais() == null || persona.getPais().getId() == null) {
             logger.error("El ID del país es nulo para la creación de la persona. Operación cancelada.");
-            throw new RuntimeException("El ID del país no puede ser nulo para crear una persona.");
+            throw new IllegalArgumentException("El ID del país no puede ser nulo para crear una persona.");
         }
 
         // Buscamos el país para asegurarnos de que existe antes de asociarlo a la persona.
-        Optional<Pais> paisOptional = paisRepository.findById(persona.getPais().getId());
+        // La caché de países responde sin SQL salvo la primera vez que se usa cada país.
+        Optional<Pais> paisOptional = paisCache.buscarPorId(persona.getPais().getId(), paisRepository::findById);
         if (paisOptional.isEmpty()) {
             logger.error("País con ID {} no encontrado al crear persona. Operación cancelada.", persona.getPais().getId());
-            throw new RuntimeException("País con ID " + persona.getPais().getId() + " no encontrado.");
+            throw new IllegalArgumentException("País con ID " + persona.getPais().getId() + " no encontrado.");
         }
         persona.setPais(paisOptional.get()); // Asignamos el objeto País completo
 
-        Persona savedPersona = personaRepository.save(persona);
+        Persona savedPersona = guardar(persona);
+        versionColecciones.registrarCambio(VersionColecciones.PERSONAS);
+        registroCambios.registrar(VersionColecciones.PERSONAS, TipoCambio.CREADO, savedPersona.getId(), savedPersona.getVersion());
         logger.info("Persona '{}' guardada exitosamente con ID: {}.", savedPersona.getNombre(), savedPersona.getId()); // Asumiendo getNombre() y getId()
         return savedPersona;
     }
 
+    // Crea muchas personas en una sola transacción usando inserts por lotes JDBC.
+    // Los países se validan una sola vez por cada id_pais distinto del lote, y los elementos inválidos
+    // se reportan individualmente sin abortar el resto. La validación va a la base de datos (no a la caché de
+    // países, que puede estar desactualizada) y bloquea los países hasta el commit: un país eliminado en paralelo,
+    // aunque sea desde otra instancia, no puede hacer fallar por la FK a todo el lote.
+    @Override
+    @Transactional
+    public ResultadoLote crearPersonasEnLote(List<Persona> personas) {
+        logger.info("Iniciando creación por lotes de {} personas.", personas.size());
+        if (personas.size() > maximoPorLote) {
+            logger.error("Lote de {} personas supera el máximo permitido de {}. Operación cancelada.", personas.size(), maximoPorLote);
+            throw new IllegalArgumentException("El lote supera el máximo de " + maximoPorLote + " personas por petición.");
+        }
+
+        ResultadoItemLote[] resultados = new ResultadoItemLote[personas.size()];
+
+        // Primera pasada: validaciones que no necesitan la base de datos y recolección de países distintos.
+        Set<Long> idsPais = new HashSet<>();
+        for (int i = 0; i < personas.size(); i++) {
+            String error = validarParaLote(personas.get(i));
+            if (error != null) {
+                resultados[i] = ResultadoItemLote.error(i, error);
+            } else {
+                idsPais.add(personas.get(i).getPais().getId());
+            }
+        }
+
+        // Una sola consulta para todo el lote (SELECT ... FOR SHARE).
+        Map<Long, Pais> paises = new HashMap<>();
+        if (!idsPais.isEmpty()) {
+            paisRepository.bloquearPorIds(idsPais).forEach(pais -> paises.put(pais.getId(), pais));
+        }
+        idsPais.stream().filter(id -> !paises.containsKey(id)).forEach(paisCache::invalidar); // Por si la caché aún los tenía
+        logger.debug("Lote referencia {} países distintos, {} existentes.", idsPais.size(), paises.size());
+
+        List<Integer> indicesValidos = new ArrayList<>();
+        for (int i = 0; i < personas.size(); i++) {
+            if (resultados[i] != null) {
+                continue;
+            }
+            Persona persona = personas.get(i);
+            Pais pais = paises.get(persona.getPais().getId());
+            if (pais == null) {
+                resultados[i] = ResultadoItemLote.error(i, "País con ID " + persona.getPais().getId() + " no encontrado.");
+                continue;
+            }
+            persona.setId(null); // Siempre se insertan como nuevas, nunca se actualizan por esta vía
+            persona.setPais(pais);
+            indicesValidos.add(i);
+        }
+
+        // Insertamos por bloques del tamaño del lote JDBC: flush envía los INSERT agrupados
+        // y clear evita que el contexto de persistencia crezca con el tamaño de la petición.
+        for (int desde = 0; desde < indicesValidos.size(); desde += tamanoLoteJdbc) {
+            List<Integer> bloque = indicesValidos.subList(desde, Math.min(desde + tamanoLoteJdbc, indicesValidos.size()));
+            List<Persona> entidades = bloque.stream().map(personas::get).toList();
+            personaRepository.saveAll(entidades);
+            entityManager.flush();
+            entityManager.clear();
+            registroCambios.registrarTodos(VersionColecciones.PERSONAS, TipoCambio.CREADO, entidades, Persona::getId, Persona::getVersion);
+            for (int j = 0; j < bloque.size(); j++) {
+                Persona creada = entidades.get(j);
+                resultados[bloque.get(j)] = ResultadoItemLote.exito(bloque.get(j), creada.getId());
+            }
+        }
+
+        int creados = indicesValidos.size();
+        if (creados > 0) {
+            versionColecciones.registrarCambio(VersionColecciones.PERSONAS);
+        }
+        logger.info("Creación por lotes finalizada: {} creadas, {} rechazadas.", creados, personas.size() - creados);
+        return ResultadoLote.builder()
+                .total(personas.size())
+                .creados(creados)
+                .fallidos(personas.size() - creados)
+                .resultados(List.of(resultados))
+                .build();
+    }
+
+    // Devuelve el motivo por el que una persona del lote no puede insertarse, o null si es válida.
+    private String validarParaLote(Persona persona) {
+        if (persona == null) {
+            return "El elemento no puede ser nulo.";
+        }
+        if (persona.getNombre() == null || persona.getNombre().isBlank()) {
+            return "El nombre no puede estar vacío.";
+        }
+        if (persona.getNombre().length() > 100) {
+            return "El nombre no puede superar los 100 caracteres.";
+        }
+        if (persona.getPais() == null || persona.getPais().getId() == null) {
+            return "El ID del país no puede ser nulo.";
+        }
+        return null;
+    }
+
     @Override
-    public Persona updatePersona(Long id, Persona persona) {
+    @Transactional
+    public Persona updatePersona(Long id, Persona persona, Long versionEsperada) {
         logger.info("Intentando actualizar persona con ID: {}. Datos recibidos: {}.", id, persona.getNombre()); // Asumiendo getNombre()
-        Optional<Persona> existingPersonaOptional = personaRepository.findById(id);
+        Optional<Persona> existingPersonaOptional = buscarPersona(id);
 
         if (existingPersonaOptional.isPresent()) {
             Persona existingPersona = existingPersonaOptional.get();
             logger.debug("Persona existente con ID {} encontrada. Preparando actualización de campos.", id);
-
+            if (versionEsperada != null && !versionEsperada.equals(existingPersona.getVersion())) {
+                logger.warn("Persona con ID {} en versión {}, se esperaba {}. Operación cancelada.", id, existingPersona.getVersion(), versionEsperada);
+                throw new VersionNoCoincideException("La persona con ID " + id + " fue modificada (versión actual " + existingPersona.getVersion() + ").");
+            }
             existingPersona.setNombre(persona.getNombre());
             existingPersona.setEdad(persona.getEdad()); // Actualizando campos
 
             // Verificamos y actualizamos el país asociado, si aplica.
             if (persona.getPais() == null || persona.getPais().getId() == null) {
                 logger.error("El ID del país es nulo para la actualización de la persona con ID {}. Operación cancelada.", id);
-                throw new RuntimeException("El ID del país no puede ser nulo para actualizar una persona.");
+                throw new IllegalArgumentException("El ID del país no puede ser nulo para actualizar una persona.");
             }
-            Optional<Pais> paisOptional = paisRepository.findById(persona.getPais().getId());
+            Optional<Pais> paisOptional = paisCache.buscarPorId(persona.getPais().getId(), paisRepository::findById);
             if (paisOptional.isEmpty()) {
                 logger.error("País con ID {} no encontrado al actualizar persona con ID {}. Operación cancelada.", persona.getPais().getId(), id);
-                throw new RuntimeException("País con ID " + persona.getPais().getId() + " no encontrado para actualizar.");
+                throw new IllegalArgumentException("País con ID " + persona.getPais().getId() + " no encontrado para actualizar.");
             }
             existingPersona.setPais(paisOptional.get()); // Asignamos el objeto País completo
 
-            Persona updatedPersona = personaRepository.save(existingPersona);
+            // El UPDATE (y el incremento de versión) se ejecuta aquí, así la respuesta lleva la versión nueva
+            // y un conflicto de concurrencia optimista se detecta dentro del servicio.
+            Persona updatedPersona = guardar(existingPersona);
+            versionColecciones.registrarCambio(VersionColecciones.PERSONAS);
+            registroCambios.registrar(VersionColecciones.PERSONAS, TipoCambio.ACTUALIZADO, updatedPersona.getId(), updatedPersona.getVersion());
             logger.info("Persona con ID {} actualizada exitosamente.", updatedPersona.getId());
             return updatedPersona;
         } else {
             logger.error("Fallo al actualizar: Persona con ID {} no encontrada en la base de datos.", id);
-            throw new RuntimeException("Persona con ID " + id + " no encontrada para actualizar.");
+            throw new RecursoNoEncontradoException("Persona con ID " + id + " no encontrada para actualizar.");
+        }
+    }
+
+    // Actualización parcial en una única sentencia (UPDATE ... RETURNING), sin leer antes la persona ni el país:
+    // la FK valida el país y el propio UPDATE aplica la condición de versión de If-Match. La ubicación de la persona
+    // se consulta dentro de la misma sentencia, para que el UPDATE toque únicamente su partición.
+    @Override
+    @Transactional
+    public PersonaDTO patchPersona(Long id, PersonaPatchDTO cambios, Long versionEsperada) {
+        logger.info("Aplicando actualización parcial a persona con ID: {}.", id);
+        if (cambios.getNombre() != null && (cambios.getNombre().isBlank() || cambios.getNombre().length() > 100)) {
+            throw new IllegalArgumentException("El nombre no puede estar vacío ni superar los 100 caracteres.");
+        }
+
+        Optional<ResultadoPatchPersona> resultado;
+        try {
+            resultado = personaRepository.patch(id, cambios.getNombre(), cambios.getEdad(), cambios.getPaisId(), versionEsperada);
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Actualización parcial de persona con ID {} rechazada por la FK: país {} inexistente.", id, cambios.getPaisId());
+            throw new IllegalArgumentException("País con ID " + cambios.getPaisId() + " no encontrado.");
+        }
+
+        if (resultado.isEmpty()) {
+            // No se actualizó nada: solo en este caso averiguamos el motivo para devolver el error adecuado.
+            if (versionEsperada != null && personaRepository.existsByIdEnSuParticion(id)) {
+                logger.warn("Persona con ID {} no está en la versión {}. Operación cancelada.", id, versionEsperada);
+                throw new VersionNoCoincideException("La persona con ID " + id + " fue modificada (se esperaba la versión " + versionEsperada + ").");
+            }
+            logger.error("Fallo al actualizar: Persona con ID {} no encontrada en la base de datos.", id);
+            throw new RecursoNoEncontradoException("Persona con ID " + id + " no encontrada para actualizar.");
         }
+
+        ResultadoPatchPersona fila = resultado.get();
+        cacheSegundoNivel.desalojarPersona(id);
+        versionColecciones.registrarCambio(VersionColecciones.PERSONAS);
+        registroCambios.registrar(VersionColecciones.PERSONAS, TipoCambio.ACTUALIZADO, id, fila.getVersion());
+        // El nombre del país de la respuesta sale de la caché (la FK ya garantizó que existe).
+        Optional<Pais> pais = paisCache.buscarPorId(fila.getPaisId(), paisRepository::findById);
+        logger.info("Persona con ID {} actualizada parcialmente a la versión {}.", id, fila.getVersion());
+        return PersonaDTO.builder()
+                .id(fila.getId())
+                .nombre(fila.getNombre())
+                .edad(fila.getEdad())
+                .paisId(fila.getPaisId())
+                .paisNombre(pais.map(Pais::getNombre).orElse(null))
+                .version(fila.getVersion())
+                .paisVersion(pais.map(Pais::getVersion).orElse(null))
+                .build();
     }
 
     @Override
+    @Transactional
     public void deletePersona(Long id) {
         logger.info("Intentando eliminar persona con ID: {}.", id);
-        if (personaRepository.existsById(id)) {
-            personaRepository.deleteById(id);
+        // Cargamos la persona (deleteById lo hace igual internamente) para conocer su versión.
+        Optional<Persona> existente = buscarPersona(id);
+        if (existente.isPresent()) {
+            Persona persona = existente.get();
+            personaRepository.delete(persona);
+            versionColecciones.registrarCambio(VersionColecciones.PERSONAS);
+            registroCambios.registrar(VersionColecciones.PERSONAS, TipoCambio.ELIMINADO, id, persona.getVersion());
             logger.info("Persona con ID {} eliminada exitosamente del repositorio.", id);
         } else {
             logger.warn("No se pudo eliminar: Persona con ID {} no encontrada en la base de datos.", id);
-            throw new RuntimeException("Persona con ID " + id + " no encontrada para eliminar.");
+            throw new RecursoNoEncontradoException("Persona con ID " + id + " no encontrada para eliminar.");
+        }
+    }
+
+    // saveAndFlush para que las restricciones de la BD se comprueben dentro del servicio y no al confirmar.
+    // La caché de países puede estar desactualizada (un país borrado desde otra instancia): entonces la FK rechaza
+    // la persona, se descarta la entrada del país y se responde como a un país inexistente.
+    private Persona guardar(Persona persona) {
+        try {
+            return personaRepository.saveAndFlush(persona);
+        } catch (DataIntegrityViolationException e) {
+            Long paisId = persona.getPais().getId();
+            if (e.getMostSpecificCause() instanceof SQLException sql && FOREIGN_KEY_VIOLATION.equals(sql.getSQLState())) {
+                logger.warn("Persona rechazada por la FK: país {} inexistente (la caché de países estaba desactualizada).", paisId);
+                paisCache.descartar(paisId);
+                throw new IllegalArgumentException("País con ID " + paisId + " no encontrado.");
+            }
+            logger.warn("Persona rechazada por una restricción de la base de datos: {}", e.getMostSpecificCause().getMessage());
+            throw new IllegalArgumentException("Datos de la persona inválidos.");
+        }
+    }
+
+    // Carga por ID sin recorrer todas las particiones de personas. Si la persona está en la caché de segundo nivel
+    // se toma de ahí, sin SQL; si no, una sola consulta busca su país en ubicaciones_personas (V10) y lee solo esa
+    // partición. La entidad cargada así también entra en la caché.
+    private Optional<Persona> buscarPersona(Long id) {
+        return cacheSegundoNivel.contienePersona(id)
+                ? personaRepository.findById(id)
+                : personaRepository.findByIdEnSuParticion(id);
+    }
+
+    @Override
+    public String getVersionListado() {
+        return versionColecciones.version(VersionColecciones.PERSONAS);
+    }
+
+    // Escribe todas las personas en el formato pedido (NDJSON: un objeto JSON por línea) directamente en la salida.
+    // La transacción de solo lectura mantiene abierto el cursor del servidor mientras se recorre el Stream.
+    // Las filas llegan como DTOs, que Hibernate no retiene, así que el uso de memoria no crece con la tabla;
+    // el contexto de persistencia se vacía igualmente de forma periódica como resguardo.
+    @Override
+    @Transactional(readOnly = true)
+    public long exportarPersonas(OutputStream salida, FormatoExportacion formato) throws IOException {
+        logger.info("Iniciando exportación {} de personas.", formato);
+        long total = 0;
+        try (Stream<PersonaDTO> personas = personaRepository.streamAllDto();
+             JsonGenerator generador = fabrica(formato).createGenerator(salida)) {
+            // La salida la cierra el contenedor de servlets, no el generador.
+            generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (formato == FormatoExportacion.NDJSON) {
+                // Sin esto Jackson separa cada valor raíz del anterior con un espacio, que quedaría al inicio de la línea
+                generador.setRootValueSeparator(null);
+            }
+            Iterator<PersonaDTO> iterador = personas.iterator();
+            while (iterador.hasNext()) {
+                personaWriter.writeValue(generador, iterador.next());
+                if (formato == FormatoExportacion.NDJSON) {
+                    generador.writeRaw('\n');
+                }
+                total++;
+                if (total % intervaloLimpiezaExport == 0) {
+                    // Empujamos los bytes al cliente en bloques.
+                    entityManager.clear();
+                    generador.flush();
+                    logger.debug("Exportación en curso: {} personas escritas.", total);
+                }
+            }
+            generador.flush();
         }
+        logger.info("Exportación {} finalizada: {} personas escritas.", formato, total);
+        return total;
+    }
+
+    // Los serializadores del personaWriter sirven para cualquier formato de Jackson; solo cambia el generador.
+    private JsonFactory fabrica(FormatoExportacion formato) {
+        return switch (formato) {
+            case NDJSON -> objectMapper.getFactory();
+            case SMILE -> fabricaSmile;
+            case CBOR -> fabricaCbor;
+        };
     }
 }
@@ -0,0 +1,20 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.dto.PaginaCursor;
+import com.Gleisk78.CRUD_backend.dto.PersonaDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Lecturas de personas sin bloquear hilos (R2DBC). Mismas respuestas que PersonaServicio; las escrituras siguen en JPA.
+public interface PersonaServicioReactivo {
+
+    Mono<PaginaCursor<PersonaDTO>> getPersonasPagina(Long paisId, Long after, Integer limit);
+
+    Mono<PersonaDTO> getPersonaById(Long id);
+
+    // Todas las personas (o las de un país) en orden de ID; las filas se leen a medida que el cliente las consume.
+    Flux<PersonaDTO> streamPersonas(Long paisId);
+
+    // Versión del listado (la misma que usa PersonaServicio para el ETag), leída con R2DBC.
+    Mono<String> getVersionListado();
+}
@@ -0,0 +1,98 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.dto.PaginaCursor;
+import com.Gleisk78.CRUD_backend.dto.PersonaDTO;
+import io.r2dbc.spi.Readable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Lecturas de personas con R2DBC: ningún hilo queda esperando a la BD, así que cientos de lecturas concurrentes no
+// necesitan cientos de hilos. Mismas consultas (y mismos índices) que PersonaRepository, escritas en SQL.
+// Sin caché de segundo nivel: la caché de Hibernate solo la usa el acceso JPA.
+@Service
+public class PersonaServicioReactivoImpl implements PersonaServicioReactivo {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersonaServicioReactivoImpl.class);
+
+    private static final String SELECT_PERSONA = "SELECT p.id_persona, p.nombre, p.edad, pa.id_pais, " +
+            "pa.nombre AS pais_nombre, p.version, pa.version AS pais_version " +
+            "FROM personas p JOIN paises pa ON pa.id_pais = p.id_pais ";
+
+    private final DatabaseClient databaseClient;
+    private final int limitePorDefecto; // Tamaño de página cuando el cliente no envía 'limit'
+    private final int limiteMaximo; // Tope duro: ninguna petición puede traer más filas que esto
+    private final int filasPorLectura; // Filas pedidas al servidor por vez en el streaming
+    private final VersionColecciones versionColecciones; // Versión de los listados para los ETag
+
+    @Autowired
+    public PersonaServicioReactivoImpl(DatabaseClient databaseClient,
+                                       @Value("${app.paginacion.limite-por-defecto:50}") int limitePorDefecto,
+                                       @Value("${app.paginacion.limite-maximo:500}") int limiteMaximo,
+                                       @Value("${app.reactivo.filas-por-lectura:500}") int filasPorLectura,
+                                       VersionColecciones versionColecciones) {
+        this.databaseClient = databaseClient;
+        this.limitePorDefecto = limitePorDefecto;
+        this.limiteMaximo = limiteMaximo;
+        this.filasPorLectura = filasPorLectura;
+        this.versionColecciones = versionColecciones;
+    }
+
+    @Override
+    public Mono<PaginaCursor<PersonaDTO>> getPersonasPagina(Long paisId, Long after, Integer limit) {
+        int limite = Paginacion.limiteEfectivo(limit, limitePorDefecto, limiteMaximo);
+        long cursor = Paginacion.cursorInicial(after);
+        logger.debug("Página reactiva de personas (paisId={}) después del ID {} con límite {}.", paisId, cursor, limite);
+        // Una fila extra indica si existe una página siguiente, igual que en el acceso JPA.
+        DatabaseClient.GenericExecuteSpec consulta = paisId == null
+                ? databaseClient.sql(SELECT_PERSONA + "WHERE p.id_persona > :after ORDER BY p.id_persona LIMIT :limite")
+                : databaseClient.sql(SELECT_PERSONA + "WHERE p.id_pais = :paisId AND p.id_persona > :after " +
+                        "ORDER BY p.id_persona LIMIT :limite").bind("paisId", paisId);
+        return consulta.bind("after", cursor)
+                .bind("limite", limite + 1)
+                .map(PersonaServicioReactivoImpl::aDto)
+                .all()
+                .collectList()
+                .map(filas -> Paginacion.construir(filas, limite, PersonaDTO::getId));
+    }
+
+    // Como en el acceso JPA, el país sale de ubicaciones_personas (V10) dentro de la misma consulta: PostgreSQL lee
+    // solo la partición de la persona en vez de buscarla en todas.
+    @Override
+    public Mono<PersonaDTO> getPersonaById(Long id) {
+        return databaseClient.sql(SELECT_PERSONA + "WHERE p.id_persona = :id " +
+                        "AND p.id_pais = (SELECT u.id_pais FROM ubicaciones_personas u WHERE u.id_persona = :id)")
+                .bind("id", id)
+                .map(PersonaServicioReactivoImpl::aDto)
+                .one();
+    }
+
+    // Con un tamaño de lectura el driver trae las filas por tandas a medida que el suscriptor las pide: si el cliente
+    // lee despacio, la consulta se detiene en vez de acumular la tabla en memoria.
+    @Override
+    public Flux<PersonaDTO> streamPersonas(Long paisId) {
+        logger.info("Iniciando streaming reactivo de personas (paisId={}).", paisId);
+        DatabaseClient.GenericExecuteSpec consulta = paisId == null
+                ? databaseClient.sql(SELECT_PERSONA + "ORDER BY p.id_persona")
+                : databaseClient.sql(SELECT_PERSONA + "WHERE p.id_pais = :paisId ORDER BY p.id_persona").bind("paisId", paisId);
+        return consulta.filter(sentencia -> sentencia.fetchSize(filasPorLectura))
+                .map(PersonaServicioReactivoImpl::aDto)
+                .all();
+    }
+
+    @Override
+    public Mono<String> getVersionListado() {
+        return versionColecciones.versionReactiva(VersionColecciones.PERSONAS);
+    }
+
+    private static PersonaDTO aDto(Readable fila) {
+        return new PersonaDTO(fila.get("id_persona", Long.class), fila.get("nombre", String.class),
+                fila.get("edad", Integer.class), fila.get("id_pais", Long.class), fila.get("pais_nombre", String.class),
+                fila.get("version", Long.class), fila.get("pais_version", Long.class));
+    }
+}
@@ -0,0 +1,303 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.dto.CambioDTO;
+import com.Gleisk78.CRUD_backend.entity.EventoCambio;
+import com.Gleisk78.CRUD_backend.entity.TipoCambio;
+import com.Gleisk78.CRUD_backend.repository.EventoCambioRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Publicador único del feed de cambios (Server-Sent Events). Un solo hilo consulta la tabla outbox cada
+// 'app.cambios.intervalo' y reparte los eventos nuevos entre todos los clientes conectados: la base de datos
+// recibe la misma consulta con uno o con mil suscriptores.
+//
+// Los eventos se publican en orden de ID. Un hueco en los IDs es una transacción que todavía no confirmó (o que
+// se revirtió): el publicador la espera hasta 'app.cambios.espera-huecos' antes de seguir, así un evento que
+// confirma tarde no queda detrás de uno ya publicado y el reenvío por Last-Event-ID (ID > último recibido) no
+// lo pierde.
+//
+// Cada evento leído desaloja además las entradas afectadas de las cachés locales (segundo nivel de Hibernate y
+// países), así los cambios hechos en otras instancias de la aplicación no se siguen sirviendo hasta que expiren.
+//
+// Los últimos eventos se guardan en memoria para los clientes que se atrasan un poco; un cliente que se
+// reconecta con un Last-Event-ID más antiguo se pone al día desde la tabla. Si le faltan demasiados eventos (o ya
+// se borraron por antigüedad) recibe un evento RECARGA y debe volver a pedir el listado completo.
+@Component
+public class PublicadorCambios {
+
+    private static final Logger logger = LoggerFactory.getLogger(PublicadorCambios.class);
+
+    private final EventoCambioRepository eventoCambioRepository;
+    private final CacheSegundoNivel cacheSegundoNivel;
+    private final PaisCache paisCache;
+    private final long timeoutMs; // Duración máxima de una conexión; el navegador se reconecta solo con Last-Event-ID
+    private final long esperaHuecosNanos;
+    private final long latidoNanos; // Sin eventos, se envía un comentario para mantener viva la conexión
+    private final int tamanoLote; // Eventos leídos por consulta
+    private final int maximoRecientes; // Eventos guardados en memoria
+    private final int maximoReenvio; // Eventos reenviados desde la tabla al reconectar antes de pedir RECARGA
+    private final Duration retencion; // Antigüedad a partir de la cual se borran los eventos de la tabla
+
+    private final NavigableMap<Long, EventoCambio> recientes = new ConcurrentSkipListMap<>();
+    private final Set<Suscriptor> suscriptores = ConcurrentHashMap.newKeySet();
+    private volatile boolean iniciado;
+    private volatile long confirmado; // Todo evento con ID <= confirmado ya se publicó (o se dio por perdido)
+    private volatile long inicioRecientes; // 'recientes' contiene todos los eventos con ID > inicioRecientes
+    // Primer hueco pendiente y desde cuándo se espera; solo los usa el hilo del publicador.
+    private long huecoId;
+    private long huecoDesde;
+
+    @Autowired
+    public PublicadorCambios(EventoCambioRepository eventoCambioRepository, CacheSegundoNivel cacheSegundoNivel, PaisCache paisCache,
+                             @Value("${app.cambios.timeout:30m}") Duration timeout,
+                             @Value("${app.cambios.espera-huecos:2s}") Duration esperaHuecos,
+                             @Value("${app.cambios.latido:15s}") Duration latido,
+                             @Value("${app.cambios.lote:1000}") int tamanoLote,
+                             @Value("${app.cambios.recientes:10000}") int maximoRecientes,
+                             @Value("${app.cambios.maximo-reenvio:10000}") int maximoReenvio,
+                             @Value("${app.cambios.retencion:7d}") Duration retencion,
+                             MeterRegistry registro) {
+        this.eventoCambioRepository = eventoCambioRepository;
+        this.cacheSegundoNivel = cacheSegundoNivel;
+        this.paisCache = paisCache;
+        this.timeoutMs = timeout.toMillis();
+        this.esperaHuecosNanos = esperaHuecos.toNanos();
+        this.latidoNanos = latido.toNanos();
+        this.tamanoLote = tamanoLote;
+        this.maximoRecientes = maximoRecientes;
+        this.maximoReenvio = maximoReenvio;
+        this.retencion = retencion;
+        Gauge.builder("cambios.suscriptores", suscriptores, Set::size)
+                .description("Clientes conectados al feed de cambios")
+                .register(registro);
+        logger.info("PublicadorCambios inicializado (espera de huecos {}, {} eventos en memoria).", esperaHuecos, maximoRecientes);
+    }
+
+    // El feed empieza en el último evento existente al arrancar. Si la base de datos no está disponible se
+    // reintenta en cada ciclo del publicador.
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        try {
+            long ultimo = eventoCambioRepository.findUltimoId();
+            confirmado = ultimo;
+            inicioRecientes = ultimo;
+            iniciado = true;
+            logger.info("Feed de cambios iniciado en el evento {}.", ultimo);
+        } catch (DataAccessException e) {
+            logger.error("No se pudo iniciar el feed de cambios: {}", e.getMessage());
+        }
+    }
+
+    // Conecta un cliente al feed de una colección. Con 'ultimoEventoId' (cabecera Last-Event-ID) recibe primero
+    // los eventos posteriores a ese ID; sin él, solo los nuevos.
+    public SseEmitter suscribir(String coleccion, String ultimoEventoId) {
+        long cursor;
+        try {
+            cursor = ultimoEventoId == null || ultimoEventoId.isBlank() ? confirmado : Long.parseLong(ultimoEventoId.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Last-Event-ID inválido: " + ultimoEventoId);
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Suscriptor suscriptor = new Suscriptor(coleccion, emitter, cursor);
+        emitter.onCompletion(() -> suscriptores.remove(suscriptor));
+        emitter.onTimeout(() -> suscriptores.remove(suscriptor));
+        emitter.onError(error -> suscriptores.remove(suscriptor));
+
+        // Mientras se pone al día desde la tabla, el publicador no le envía nada (no obtiene el lock).
+        suscriptor.bloqueo.lock();
+        try {
+            suscriptores.add(suscriptor);
+            suscriptor.enviar(SseEmitter.event().reconnectTime(1000).comment("conectado"));
+            if (cursor < inicioRecientes) {
+                ponerAlDia(suscriptor);
+            }
+            logger.info("Cliente suscrito al feed de {} desde el evento {} ({} conectados).", coleccion, cursor, suscriptores.size());
+        } catch (IOException | IllegalStateException e) {
+            suscriptores.remove(suscriptor);
+            logger.warn("No se pudo iniciar el feed de {}: {}", coleccion, e.getMessage());
+        } finally {
+            suscriptor.bloqueo.unlock();
+        }
+        return emitter;
+    }
+
+    // Lee los eventos confirmados nuevos y los entrega a cada suscriptor. Un suscriptor ocupado (poniéndose al
+    // día) se salta en este ciclo y recibe lo pendiente en el siguiente, porque cada uno lleva su propio cursor.
+    @Scheduled(fixedDelayString = "${app.cambios.intervalo:500ms}")
+    public void publicar() {
+        if (!iniciado) {
+            iniciar();
+            if (!iniciado) {
+                return;
+            }
+        }
+        try {
+            for (EventoCambio evento : leerConfirmados()) {
+                recientes.put(evento.getId(), evento);
+                desalojarCaches(evento);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("No se pudieron leer los eventos de cambios: {}", e.getMessage());
+            return;
+        }
+        while (recientes.size() > maximoRecientes) {
+            inicioRecientes = recientes.pollFirstEntry().getKey();
+        }
+
+        long ahora = System.nanoTime();
+        for (Suscriptor suscriptor : suscriptores) {
+            if (!suscriptor.bloqueo.tryLock()) {
+                continue;
+            }
+            try {
+                entregar(suscriptor, ahora);
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado: se descarta sin afectar a los demás.
+                suscriptores.remove(suscriptor);
+                logger.debug("Suscriptor del feed de {} desconectado: {}", suscriptor.coleccion, e.getMessage());
+            } finally {
+                suscriptor.bloqueo.unlock();
+            }
+        }
+    }
+
+    // Borra los eventos más antiguos que la retención. Un cliente que vuelve después de ese plazo recibe RECARGA.
+    @Scheduled(initialDelayString = "${app.cambios.intervalo-limpieza:1h}", fixedDelayString = "${app.cambios.intervalo-limpieza:1h}")
+    public void limpiar() {
+        try {
+            int borrados = eventoCambioRepository.deleteAnterioresA(Instant.now().minus(retencion));
+            logger.info("Limpieza del feed de cambios: {} eventos anteriores a {} borrados.", borrados, retencion);
+        } catch (DataAccessException e) {
+            logger.warn("No se pudo limpiar la tabla de eventos de cambios: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        suscriptores.forEach(suscriptor -> suscriptor.emitter.complete());
+        suscriptores.clear();
+    }
+
+    // Eventos nuevos en orden de ID, deteniéndose en el primer hueco mientras no haya pasado la espera.
+    private List<EventoCambio> leerConfirmados() {
+        List<EventoCambio> confirmados = new ArrayList<>();
+        long esperado = confirmado + 1;
+        for (EventoCambio evento : eventoCambioRepository.findByIdGreaterThanOrderByIdAsc(confirmado, Limit.of(tamanoLote))) {
+            if (evento.getId() != esperado) {
+                if (huecoId != esperado) {
+                    huecoId = esperado;
+                    huecoDesde = System.nanoTime();
+                }
+                if (System.nanoTime() - huecoDesde < esperaHuecosNanos) {
+                    break;
+                }
+                logger.warn("Feed de cambios: se dan por perdidos los eventos {} a {} (transacción revertida o demasiado larga).",
+                        esperado, evento.getId() - 1);
+            }
+            confirmados.add(evento);
+            confirmado = evento.getId();
+            esperado = confirmado + 1;
+        }
+        return confirmados;
+    }
+
+    private void desalojarCaches(EventoCambio evento) {
+        cacheSegundoNivel.desalojarPorEvento(evento);
+        if (VersionColecciones.PAISES.equals(evento.getColeccion())) {
+            paisCache.descartar(evento.getEntidadId());
+        }
+    }
+
+    private void entregar(Suscriptor suscriptor, long ahora) throws IOException {
+        if (suscriptor.cursor < inicioRecientes) {
+            // Se atrasó más que los eventos guardados en memoria (cliente muy lento).
+            recargar(suscriptor, confirmado);
+            return;
+        }
+        for (EventoCambio evento : recientes.tailMap(suscriptor.cursor, false).values()) {
+            enviar(suscriptor, evento);
+        }
+        if (ahora - suscriptor.ultimoEnvio > latidoNanos) {
+            suscriptor.enviar(SseEmitter.event().comment("latido"));
+        }
+    }
+
+    // Reenvía desde la tabla los eventos entre el cursor del cliente y el del publicador.
+    private void ponerAlDia(Suscriptor suscriptor) throws IOException {
+        long hasta = confirmado;
+        if (suscriptor.cursor < eventoCambioRepository.findPrimerId() - 1) {
+            recargar(suscriptor, hasta); // Los eventos que le faltan ya se borraron
+            return;
+        }
+        List<EventoCambio> eventos = eventoCambioRepository.findByColeccionAndIdGreaterThanAndIdLessThanEqualOrderByIdAsc(
+                suscriptor.coleccion, suscriptor.cursor, hasta, Limit.of(maximoReenvio + 1));
+        if (eventos.size() > maximoReenvio) {
+            recargar(suscriptor, hasta);
+            return;
+        }
+        for (EventoCambio evento : eventos) {
+            enviar(suscriptor, evento);
+        }
+        suscriptor.cursor = hasta;
+    }
+
+    private void enviar(Suscriptor suscriptor, EventoCambio evento) throws IOException {
+        if (evento.getColeccion().equals(suscriptor.coleccion)) {
+            CambioDTO cambio = new CambioDTO(evento.getTipo().name(), evento.getEntidadId(), evento.getVersion());
+            suscriptor.enviar(SseEmitter.event().id(Long.toString(evento.getId())).data(cambio, MediaType.APPLICATION_JSON));
+        }
+        suscriptor.cursor = evento.getId();
+    }
+
+    private void recargar(Suscriptor suscriptor, long hasta) throws IOException {
+        CambioDTO recarga = new CambioDTO(TipoCambio.RECARGA.name(), null, null);
+        suscriptor.enviar(SseEmitter.event().id(Long.toString(hasta)).data(recarga, MediaType.APPLICATION_JSON));
+        suscriptor.cursor = hasta;
+    }
+
+    // Cliente conectado. 'cursor' es el ID del último evento entregado (de cualquier colección); solo se
+    // modifica con 'bloqueo' tomado.
+    private static final class Suscriptor {
+
+        private final String coleccion;
+        private final SseEmitter emitter;
+        private final ReentrantLock bloqueo = new ReentrantLock();
+        private long cursor;
+        private long ultimoEnvio = System.nanoTime();
+
+        private Suscriptor(String coleccion, SseEmitter emitter, long cursor) {
+            this.coleccion = coleccion;
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        private void enviar(SseEmitter.SseEventBuilder evento) throws IOException {
+            emitter.send(evento);
+            ultimoEnvio = System.nanoTime();
+        }
+    }
+}
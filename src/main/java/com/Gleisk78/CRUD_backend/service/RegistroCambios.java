@@ -0,0 +1,45 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.entity.TipoCambio;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+
+// Escribe los eventos del feed de cambios en la tabla outbox. Debe llamarse dentro de la transacción del cambio:
+// JdbcTemplate usa la misma conexión que la transacción JPA, así el evento se confirma o se descarta con él.
+// Se usa JDBC y no la entidad porque su ID es de identidad: Hibernate no podría agrupar los INSERT en lotes.
+@Component
+public class RegistroCambios {
+
+    static final String INSERTAR =
+            "INSERT INTO eventos_cambios (coleccion, tipo, id_entidad, version, creado) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public RegistroCambios(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void registrar(String coleccion, TipoCambio tipo, Long id, Long version) {
+        jdbcTemplate.update(INSERTAR, coleccion, tipo.name(), id, version, Timestamp.from(Instant.now()));
+    }
+
+    // Un evento por entidad, en un solo lote JDBC.
+    public <T> void registrarTodos(String coleccion, TipoCambio tipo, List<T> entidades,
+                                   Function<T, Long> id, Function<T, Long> version) {
+        Timestamp ahora = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERTAR, entidades, entidades.size(), (sentencia, entidad) -> {
+            sentencia.setString(1, coleccion);
+            sentencia.setString(2, tipo.name());
+            sentencia.setObject(3, id.apply(entidad));
+            sentencia.setObject(4, version.apply(entidad));
+            sentencia.setTimestamp(5, ahora);
+        });
+    }
+}
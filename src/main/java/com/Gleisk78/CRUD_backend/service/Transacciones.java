@@ -0,0 +1,25 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Utilidades para enganchar estado en memoria (cachés, contadores) al ciclo de vida de la transacción.
+final class Transacciones {
+
+    private Transacciones() {
+    }
+
+    // Si hay una transacción activa, la acción se ejecuta solo si confirma; si no, de inmediato.
+    static void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Versión de cada colección (personas, países), base de los ETag de los listados: permite responder 304 Not
+// Modified sin leer filas. Se guarda en la tabla versiones_colecciones (V9__versiones_colecciones.sql), así que
+// todas las instancias de la aplicación ven la misma versión y solo cambia cuando un cambio se confirma.
+@Component
+public class VersionColecciones {
+
+    public static final String PERSONAS = "personas";
+    public static final String PAISES = "paises";
+
+    // Filas por colección: cada transacción incrementa una al azar, de modo que escrituras concurrentes casi nunca
+    // esperan por la misma fila. Debe coincidir con las filas que crea la migración.
+    static final int RANURAS = 16;
+
+    private static final String LEER = "SELECT CAST(coalesce(sum(version), 0) AS BIGINT) AS version, max(modificado) AS modificado " +
+            "FROM versiones_colecciones WHERE coleccion = ";
+    private static final String INCREMENTAR = "UPDATE versiones_colecciones SET version = version + 1, modificado = ? " +
+            "WHERE coleccion = ? AND ranura = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseClient databaseClient;
+    private final Duration ventanaReplicas; // Duration.ZERO si no hay réplicas de lectura
+
+    @Autowired
+    public VersionColecciones(JdbcTemplate jdbcTemplate, DatabaseClient databaseClient,
+                              @Value("${app.replicas.habilitado:false}") boolean replicasHabilitadas,
+                              @Value("${app.replicas.retraso-maximo:5s}") Duration retrasoMaximo) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databaseClient = databaseClient;
+        this.ventanaReplicas = replicasHabilitadas ? retrasoMaximo : Duration.ZERO;
+    }
+
+    // Versión actual de la colección, opaca para el cliente. Se lee fuera de toda transacción, es decir, de la
+    // primaria: una réplica atrasada podría devolver una versión anterior junto con datos más nuevos de otra.
+    // Con réplicas, un listado leído poco después de un cambio puede venir de una réplica que aún no lo aplicó.
+    // Durante ese margen (el retraso máximo admitido) la versión lleva el sufijo "-r", de modo que el ETag
+    // entregado junto con esos datos deja de coincidir cuando el margen termina y el cliente vuelve a leerlos.
+    public String version(String coleccion) {
+        return jdbcTemplate.queryForObject(LEER + "?",
+                (fila, numero) -> formatear(fila.getLong("version"), instante(fila.getTimestamp("modificado"))),
+                coleccion);
+    }
+
+    // La misma lectura con R2DBC, para la API reactiva.
+    public Mono<String> versionReactiva(String coleccion) {
+        return databaseClient.sql(LEER + ":coleccion")
+                .bind("coleccion", coleccion)
+                .map(fila -> formatear(fila.get("version", Long.class), instante(fila.get("modificado", OffsetDateTime.class))))
+                .one();
+    }
+
+    // Marca la colección como modificada por la transacción en curso. La fila se incrementa justo antes del
+    // commit (una sola vez por colección, aunque se llame varias veces) y así su bloqueo dura lo mínimo; si la
+    // transacción se revierte, la versión no cambia.
+    public void registrarCambio(String coleccion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            incrementar(Set.of(coleccion));
+            return;
+        }
+        CambiosPendientes pendientes = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(CambiosPendientes.class::isInstance)
+                .map(CambiosPendientes.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    CambiosPendientes nuevos = new CambiosPendientes();
+                    TransactionSynchronizationManager.registerSynchronization(nuevos);
+                    return nuevos;
+                });
+        pendientes.colecciones.add(coleccion);
+    }
+
+    // Siempre en el mismo orden (alfabético): dos transacciones que modifican personas y países no se bloquean
+    // mutuamente.
+    private void incrementar(Set<String> colecciones) {
+        Timestamp ahora = Timestamp.from(Instant.now());
+        for (String coleccion : new TreeSet<>(colecciones)) {
+            jdbcTemplate.update(INCREMENTAR, ahora, coleccion, ThreadLocalRandom.current().nextInt(RANURAS));
+        }
+    }
+
+    private String formatear(long version, Instant modificado) {
+        String resultado = Long.toString(version);
+        if (!ventanaReplicas.isZero() && modificado != null
+                && Duration.between(modificado, Instant.now()).compareTo(ventanaReplicas) < 0) {
+            resultado += "-r";
+        }
+        return resultado;
+    }
+
+    private static Instant instante(Timestamp valor) {
+        return valor == null ? null : valor.toInstant();
+    }
+
+    private static Instant instante(OffsetDateTime valor) {
+        return valor == null ? null : valor.toInstant();
+    }
+
+    // Colecciones modificadas por la transacción del hilo actual.
+    private final class CambiosPendientes implements TransactionSynchronization {
+
+        private final Set<String> colecciones = new TreeSet<>();
+
+        @Override
+        public void beforeCommit(boolean soloLectura) {
+            incrementar(colecciones);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+-- Ubicación de cada persona: su país, es decir, la partición donde está (ver V7). Cumple dos funciones:
+-- 1. Su clave primaria vuelve a garantizar en la base de datos que id_persona es único. La PK de personas es
+--    (id_persona, id_pais) y PostgreSQL no admite un índice único global sobre una tabla particionada.
+-- 2. Las lecturas y escrituras por ID consultan aquí el país (una búsqueda en un índice de una tabla sin particiones)
+--    y luego filtran personas también por id_pais: PostgreSQL lee y bloquea una sola partición en lugar de todas.
+-- La mantienen triggers por sentencia sobre personas, como estadisticas_pais (V8), así que vale para cualquier
+-- escritura: entidades, PATCH nativo, lotes e importación CSV.
+
+CREATE TABLE IF NOT EXISTS ubicaciones_personas (
+    id_persona BIGINT NOT NULL,
+    id_pais BIGINT NOT NULL,
+    CONSTRAINT ubicaciones_personas_pkey PRIMARY KEY (id_persona)
+);
+
+-- Un ID repetido hace fallar el INSERT con una violación de la PK (23505), igual que antes de particionar.
+-- Los UPDATE solo tocan la tabla si cambia el país (o el ID); cambiar el nombre o la edad no la modifica.
+CREATE OR REPLACE FUNCTION registrar_ubicaciones_personas() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO ubicaciones_personas (id_persona, id_pais)
+        SELECT id_persona, id_pais FROM nuevas;
+    ELSIF TG_OP = 'DELETE' THEN
+        DELETE FROM ubicaciones_personas u USING anteriores a WHERE u.id_persona = a.id_persona;
+    ELSE
+        DELETE FROM ubicaciones_personas u USING anteriores a
+        WHERE u.id_persona = a.id_persona
+          AND NOT EXISTS (SELECT 1 FROM nuevas n WHERE n.id_persona = a.id_persona);
+        UPDATE ubicaciones_personas u SET id_pais = n.id_pais FROM nuevas n
+        WHERE u.id_persona = n.id_persona AND u.id_pais <> n.id_pais;
+        INSERT INTO ubicaciones_personas (id_persona, id_pais)
+        SELECT n.id_persona, n.id_pais FROM nuevas n
+        WHERE NOT EXISTS (SELECT 1 FROM anteriores a WHERE a.id_persona = n.id_persona);
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+-- Bloquea las escrituras en personas hasta el commit: los triggers y la carga inicial ven exactamente las mismas filas.
+LOCK TABLE personas IN SHARE MODE;
+
+DROP TRIGGER IF EXISTS personas_ubicaciones_insert ON personas;
+CREATE TRIGGER personas_ubicaciones_insert AFTER INSERT ON personas
+    REFERENCING NEW TABLE AS nuevas
+    FOR EACH STATEMENT EXECUTE FUNCTION registrar_ubicaciones_personas();
+
+DROP TRIGGER IF EXISTS personas_ubicaciones_update ON personas;
+CREATE TRIGGER personas_ubicaciones_update AFTER UPDATE ON personas
+    REFERENCING OLD TABLE AS anteriores NEW TABLE AS nuevas
+    FOR EACH STATEMENT EXECUTE FUNCTION registrar_ubicaciones_personas();
+
+DROP TRIGGER IF EXISTS personas_ubicaciones_delete ON personas;
+CREATE TRIGGER personas_ubicaciones_delete AFTER DELETE ON personas
+    REFERENCING OLD TABLE AS anteriores
+    FOR EACH STATEMENT EXECUTE FUNCTION registrar_ubicaciones_personas();
+
+-- Carga inicial. Incluye las particiones desvinculadas o archivadas: sus IDs siguen reservados y, al volver a
+-- vincularlas, sus personas se encuentran por ID como las demás.
+DELETE FROM ubicaciones_personas;
+INSERT INTO ubicaciones_personas (id_persona, id_pais)
+SELECT id_persona, id_pais FROM personas;
+
+DO $$
+DECLARE
+    particion RECORD;
+BEGIN
+    FOR particion IN
+        SELECT n.nspname AS esquema, c.relname AS tabla
+        FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+        WHERE c.relkind = 'r' AND NOT c.relispartition AND n.nspname IN ('public', 'archivo')
+          AND c.relname ~ '^personas_p[0-9]+$'
+    LOOP
+        EXECUTE format('INSERT INTO ubicaciones_personas (id_persona, id_pais) SELECT id_persona, id_pais FROM %I.%I',
+                       particion.esquema, particion.tabla);
+    END LOOP;
+END
+$$;
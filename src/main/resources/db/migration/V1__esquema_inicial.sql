@@ -1,7 +1,7 @@
--- sql/init.sql
-
--- Primero, crea las tablas si no existen.
--- Esto asegura que los INSERTs tengan dónde ir.
+-- Esquema inicial (el sql/init.sql original): tablas con IDs IDENTITY y datos de ejemplo.
+-- Las migraciones siguientes lo llevan al esquema actual. Todas son idempotentes, así que una base creada
+-- antes de usar Flyway (con init.sql y los scripts de sql/migraciones/) se registra en V1 y vuelve a
+-- recorrerlas sin cambios (spring.flyway.baseline-on-migrate).
 
 CREATE TABLE IF NOT EXISTS paises (
     id_pais BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
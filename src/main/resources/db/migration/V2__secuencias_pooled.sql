@@ -0,0 +1,15 @@
+-- IDs por secuencias con INCREMENT BY 50 en lugar de IDENTITY: Hibernate reserva bloques de IDs (optimizador
+-- 'pooled') y así puede enviar los INSERT en lotes JDBC. El incremento debe coincidir con allocationSize en las entidades.
+
+CREATE SEQUENCE IF NOT EXISTS paises_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS personas_seq INCREMENT BY 50;
+
+ALTER TABLE paises ALTER COLUMN id_pais DROP IDENTITY IF EXISTS;
+ALTER TABLE personas ALTER COLUMN id_persona DROP IDENTITY IF EXISTS;
+
+-- Dejamos cada secuencia al menos un bloque completo por encima del mayor ID existente,
+-- sin retrocederla nunca si ya estaba más adelante (otras instancias pueden tener rangos reservados).
+SELECT setval('paises_seq', GREATEST((SELECT COALESCE(MAX(id_pais), 0) + 50 FROM paises),
+                                     (SELECT last_value FROM paises_seq)));
+SELECT setval('personas_seq', GREATEST((SELECT COALESCE(MAX(id_persona), 0) + 50 FROM personas),
+                                       (SELECT last_value FROM personas_seq)));
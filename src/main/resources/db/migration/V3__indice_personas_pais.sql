@@ -0,0 +1,6 @@
+-- Índice sobre personas.id_pais (la FK hacia paises). Lo usan la eliminación de países, que verifica con
+-- NOT EXISTS si quedan personas asociadas, y las consultas por país.
+-- CONCURRENTLY evita bloquear las escrituras mientras se construye sobre una tabla grande; Flyway ejecuta esta
+-- sentencia fuera de transacción (spring.flyway.mixed=true).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_personas_id_pais ON personas (id_pais);
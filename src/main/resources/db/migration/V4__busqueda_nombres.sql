@@ -0,0 +1,18 @@
+-- Soporte para GET /api/v1/personas/search: búsqueda por nombre sin distinguir mayúsculas ni acentos,
+-- por prefijo y por similitud (pg_trgm). Crear extensiones requiere un usuario con permisos suficientes.
+-- Los índices se crean con CONCURRENTLY para no bloquear escrituras (fuera de transacción, ver V3).
+
+CREATE EXTENSION IF NOT EXISTS unaccent;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- unaccent() no es IMMUTABLE y no puede usarse en un índice; esta envoltura fija el diccionario.
+CREATE OR REPLACE FUNCTION normalizar_nombre(texto TEXT) RETURNS TEXT
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+AS $$ SELECT lower(public.unaccent('public.unaccent'::regdictionary, texto)) $$;
+
+-- Trigramas: prefijo, prefijo de palabra y similitud (tolerancia a errores de tipeo).
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_personas_nombre_trgm
+    ON personas USING gin (normalizar_nombre(nombre) gin_trgm_ops);
+-- B-tree para prefijos muy cortos, donde los trigramas son poco selectivos.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_personas_nombre_prefijo
+    ON personas (normalizar_nombre(nombre) text_pattern_ops);
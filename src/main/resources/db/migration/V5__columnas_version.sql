@@ -0,0 +1,6 @@
+-- Columna de versión para el control de concurrencia optimista (@Version) y los ETag de la API.
+-- En PostgreSQL 11+ agregar una columna con DEFAULT constante no reescribe la tabla: es instantáneo
+-- aunque personas tenga millones de filas.
+
+ALTER TABLE paises ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE personas ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
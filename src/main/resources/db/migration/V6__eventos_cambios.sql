@@ -0,0 +1,16 @@
+-- Tabla outbox del feed de cambios (GET /personas/changes y /paises/changes). Cada escritura de personas y
+-- países agrega aquí su evento en la misma transacción, así el feed nunca anuncia un cambio que no se confirmó
+-- ni pierde uno que sí. El ID es de una identidad sin bloques (no como las secuencias 'pooled') porque el
+-- publicador recorre los eventos en orden de ID y trata los huecos como transacciones aún sin confirmar.
+
+CREATE TABLE IF NOT EXISTS eventos_cambios (
+    id_evento BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    coleccion VARCHAR(20) NOT NULL,
+    tipo VARCHAR(20) NOT NULL,
+    id_entidad BIGINT,
+    version BIGINT,
+    creado TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+-- Limpieza periódica de los eventos más antiguos que la retención (app.cambios.retencion).
+CREATE INDEX IF NOT EXISTS idx_eventos_cambios_creado ON eventos_cambios (creado);
@@ -0,0 +1,48 @@
+-- personas pasa a ser una tabla particionada por lista de id_pais. La tabla actual no se copia: se renombra a
+-- personas_default y se adjunta como partición DEFAULT, reutilizando sus índices, así que la conversión solo toca el
+-- catálogo aunque tenga cientos de millones de filas. Después, cada país se mueve a su propia partición con
+-- POST /api/v1/admin/particiones/{idPais} (ParticionServicioImpl), cuando convenga y de a uno.
+-- Requiere PostgreSQL 12 o superior.
+
+-- Una tabla particionada exige que la clave primaria incluya la columna de partición. Este índice, equivalente a la
+-- nueva PK, se construye antes y sin bloquear escrituras (fuera de transacción, ver V3).
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS personas_default_pkey_particion ON personas (id_persona, id_pais);
+
+-- El resto ocurre en una sola sentencia (todo o nada) y en poco tiempo, aunque con un bloqueo exclusivo sobre personas
+-- mientras dura.
+DO $$
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = 'public.personas'::regclass) = 'p' THEN
+        RETURN; -- Ya particionada
+    END IF;
+
+    ALTER TABLE personas RENAME TO personas_default;
+    ALTER TABLE personas_default RENAME CONSTRAINT fk_pais TO personas_default_fk_pais;
+    ALTER INDEX idx_personas_id_pais RENAME TO personas_default_id_pais_idx;
+    ALTER INDEX idx_personas_nombre_trgm RENAME TO personas_default_nombre_trgm_idx;
+    ALTER INDEX idx_personas_nombre_prefijo RENAME TO personas_default_nombre_prefijo_idx;
+    -- La PK pasa a (id_persona, id_pais) con el índice ya construido. id_persona sigue siendo único en la práctica
+    -- (sale de personas_seq) y las búsquedas por ID usan la primera columna de este índice.
+    ALTER TABLE personas_default DROP CONSTRAINT personas_pkey;
+    ALTER TABLE personas_default ADD CONSTRAINT personas_default_pkey PRIMARY KEY USING INDEX personas_default_pkey_particion;
+
+    CREATE TABLE personas (
+        id_persona BIGINT NOT NULL,
+        nombre VARCHAR(100) NOT NULL,
+        edad INTEGER,
+        id_pais BIGINT NOT NULL,
+        version BIGINT NOT NULL DEFAULT 0,
+        CONSTRAINT personas_pkey PRIMARY KEY (id_persona, id_pais),
+        CONSTRAINT fk_pais FOREIGN KEY (id_pais) REFERENCES paises (id_pais)
+    ) PARTITION BY LIST (id_pais);
+
+    -- Sobre una tabla particionada sin particiones estos índices se crean al instante. Cada partición nueva los
+    -- recibe automáticamente, y al adjuntar personas_default se enlazan con sus índices equivalentes (y la FK con
+    -- su FK) en lugar de construirse o validarse de nuevo.
+    CREATE INDEX idx_personas_id_pais ON personas (id_pais);
+    CREATE INDEX idx_personas_nombre_trgm ON personas USING gin (normalizar_nombre(nombre) gin_trgm_ops);
+    CREATE INDEX idx_personas_nombre_prefijo ON personas (normalizar_nombre(nombre) text_pattern_ops);
+
+    ALTER TABLE personas ATTACH PARTITION personas_default DEFAULT;
+END
+$$;
@@ -0,0 +1,59 @@
+-- Estadísticas por país (GET /paises/stats) mantenidas por la propia base de datos. Cada sentencia que inserta,
+-- modifica o borra personas agrega, en la misma transacción, una fila por (país, edad) con la diferencia que produjo.
+-- Así los conteos valen sin importar qué instancia (o qué SQL) hizo la escritura, y una escritura revertida no deja
+-- rastro. Las escrituras solo agregan filas (no actualizan una fila por país), de modo que no compiten por bloqueos.
+-- EstadisticasPaisServicioImpl suma las filas al consultar y las compacta periódicamente.
+
+CREATE TABLE IF NOT EXISTS estadisticas_pais (
+    id_pais BIGINT NOT NULL,
+    edad INTEGER, -- null: personas sin edad
+    total BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_estadisticas_pais_pais ON estadisticas_pais (id_pais);
+
+-- Triggers por sentencia con tablas de transición: una importación de un millón de filas agrega unas pocas
+-- filas por país, no una por persona. Cubren todas las particiones porque se declaran sobre personas.
+CREATE OR REPLACE FUNCTION registrar_estadisticas_pais() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO estadisticas_pais (id_pais, edad, total)
+        SELECT id_pais, edad, count(*) FROM nuevas GROUP BY id_pais, edad;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO estadisticas_pais (id_pais, edad, total)
+        SELECT id_pais, edad, -count(*) FROM anteriores GROUP BY id_pais, edad;
+    ELSE
+        -- Solo cuentan los cambios de país o de edad; cambiar el nombre no agrega filas
+        INSERT INTO estadisticas_pais (id_pais, edad, total)
+        SELECT id_pais, edad, sum(diferencia)
+        FROM (SELECT id_pais, edad, 1 AS diferencia FROM nuevas
+              UNION ALL
+              SELECT id_pais, edad, -1 FROM anteriores) cambios
+        GROUP BY id_pais, edad
+        HAVING sum(diferencia) <> 0;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+-- Bloquea las escrituras en personas hasta el commit: los triggers y la carga inicial ven exactamente las mismas filas.
+LOCK TABLE personas IN SHARE MODE;
+
+DROP TRIGGER IF EXISTS personas_estadisticas_insert ON personas;
+CREATE TRIGGER personas_estadisticas_insert AFTER INSERT ON personas
+    REFERENCING NEW TABLE AS nuevas
+    FOR EACH STATEMENT EXECUTE FUNCTION registrar_estadisticas_pais();
+
+DROP TRIGGER IF EXISTS personas_estadisticas_update ON personas;
+CREATE TRIGGER personas_estadisticas_update AFTER UPDATE ON personas
+    REFERENCING OLD TABLE AS anteriores NEW TABLE AS nuevas
+    FOR EACH STATEMENT EXECUTE FUNCTION registrar_estadisticas_pais();
+
+DROP TRIGGER IF EXISTS personas_estadisticas_delete ON personas;
+CREATE TRIGGER personas_estadisticas_delete AFTER DELETE ON personas
+    REFERENCING OLD TABLE AS anteriores
+    FOR EACH STATEMENT EXECUTE FUNCTION registrar_estadisticas_pais();
+
+DELETE FROM estadisticas_pais;
+INSERT INTO estadisticas_pais (id_pais, edad, total)
+SELECT id_pais, edad, count(*) FROM personas GROUP BY id_pais, edad;
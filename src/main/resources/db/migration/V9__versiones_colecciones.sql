@@ -0,0 +1,19 @@
+-- Versión de cada colección (personas, países), base de los ETag de los listados. Cada transacción que modifica
+-- una colección incrementa, justo antes de confirmar, una de sus filas elegida al azar; la versión es la suma de
+-- todas. Al vivir en la base de datos es la misma para todas las instancias de la aplicación y solo avanza con
+-- cambios confirmados. Repartirla en varias filas evita que todas las escrituras esperen por el bloqueo de una sola.
+
+CREATE TABLE IF NOT EXISTS versiones_colecciones (
+    coleccion VARCHAR(20) NOT NULL,
+    ranura SMALLINT NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    modificado TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    PRIMARY KEY (coleccion, ranura)
+);
+
+-- Tantas filas por colección como VersionColecciones.RANURAS.
+INSERT INTO versiones_colecciones (coleccion, ranura)
+SELECT coleccion, ranura
+FROM (VALUES ('personas'), ('paises')) AS colecciones (coleccion)
+CROSS JOIN generate_series(0, 15) AS ranura
+ON CONFLICT DO NOTHING;
@@ -2,8 +2,10 @@ package com.Gleisk78.CRUD_backend;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
 @SpringBootTest
+@ActiveProfiles("test")
 class CrudBackendApplicationTests {
 
 	@Test
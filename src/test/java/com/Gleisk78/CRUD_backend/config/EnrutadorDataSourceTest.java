@@ -0,0 +1,64 @@
+package com.Gleisk78.CRUD_backend.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EnrutadorDataSourceTest {
+
+	private MonitorReplicas monitor;
+	private EnrutadorDataSource enrutador;
+
+	@BeforeEach
+	void setUp() {
+		monitor = mock(MonitorReplicas.class);
+		when(monitor.dataSources()).thenReturn(Map.of("replica-0", mock(DataSource.class)));
+		enrutador = new EnrutadorDataSource(mock(DataSource.class), monitor);
+	}
+
+	@AfterEach
+	void tearDown() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		ContextoLectura.limpiar();
+	}
+
+	@Test
+	void lasEscriturasVanALaPrimaria() {
+		when(monitor.elegirReplica()).thenReturn("replica-0");
+
+		assertEquals(EnrutadorDataSource.PRIMARIA, enrutador.determineCurrentLookupKey());
+		verify(monitor, never()).elegirReplica();
+	}
+
+	@Test
+	void lasLecturasVanAUnaReplicaSana() {
+		when(monitor.elegirReplica()).thenReturn("replica-0");
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		assertEquals("replica-0", enrutador.determineCurrentLookupKey());
+	}
+
+	@Test
+	void sinReplicasSanasLasLecturasVanALaPrimaria() {
+		when(monitor.elegirReplica()).thenReturn(null);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		assertEquals(EnrutadorDataSource.PRIMARIA, enrutador.determineCurrentLookupKey());
+	}
+
+	@Test
+	void trasUnaEscrituraDelClienteSusLecturasVanALaPrimaria() {
+		when(monitor.elegirReplica()).thenReturn("replica-0");
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		ContextoLectura.forzarPrimaria();
+
+		assertEquals(EnrutadorDataSource.PRIMARIA, enrutador.determineCurrentLookupKey());
+	}
+}
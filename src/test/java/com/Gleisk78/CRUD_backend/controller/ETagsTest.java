@@ -0,0 +1,51 @@
+package com.Gleisk78.CRUD_backend.controller;
+
+import com.Gleisk78.CRUD_backend.dto.PersonaDTO;
+import com.Gleisk78.CRUD_backend.exception.VersionNoCoincideException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+	@Test
+	void etagDePersonaIncluyeLaVersionDelPais() {
+		PersonaDTO persona = PersonaDTO.builder().id(101L).version(4L).paisVersion(2L).build();
+
+		assertEquals("\"4-2\"", ETags.dePersona(persona));
+	}
+
+	@Test
+	void etagDeColeccionEsDebil() {
+		assertEquals("W/\"c-abc-1\"", ETags.deColeccion("abc-1"));
+	}
+
+	@Test
+	void ifNoneMatchSeComparaDebilmenteContraCadaEtag() {
+		String etag = ETags.deColeccion("42");
+
+		assertTrue(ETags.coincide("W/\"c-42\"", etag));
+		assertTrue(ETags.coincide("\"c-41\", \"c-42\"", etag));
+		assertTrue(ETags.coincide("*", etag));
+		assertFalse(ETags.coincide("W/\"c-41\"", etag));
+		assertFalse(ETags.coincide(null, etag));
+	}
+
+	@Test
+	void ifMatchSeLeeDesdeElEtagCompleto() {
+		assertEquals(4L, ETags.versionEsperada("\"4-2\""));
+		assertEquals(7L, ETags.versionEsperada("\"7\""));
+	}
+
+	@Test
+	void ifMatchAusenteOComodinNoCondicionaLaActualizacion() {
+		assertNull(ETags.versionEsperada(null));
+		assertNull(ETags.versionEsperada("*"));
+	}
+
+	@Test
+	void ifMatchInvalidoODebilFallaLaPrecondicion() {
+		assertThrows(VersionNoCoincideException.class, () -> ETags.versionEsperada("\"c-abc-1\""));
+		assertThrows(VersionNoCoincideException.class, () -> ETags.versionEsperada("W/\"4-2\""));
+	}
+}
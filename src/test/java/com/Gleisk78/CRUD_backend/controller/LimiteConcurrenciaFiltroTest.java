@@ -0,0 +1,32 @@
+package com.Gleisk78.CRUD_backend.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static com.Gleisk78.CRUD_backend.controller.LimiteConcurrenciaFiltro.Grupo.COSTOSA;
+import static com.Gleisk78.CRUD_backend.controller.LimiteConcurrenciaFiltro.Grupo.LECTURA;
+import static com.Gleisk78.CRUD_backend.controller.LimiteConcurrenciaFiltro.grupo;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimiteConcurrenciaFiltroTest {
+
+	@Test
+	void lecturasPorIdSeparadasDeListadosYEscrituras() {
+		assertEquals(LECTURA, grupo("GET", "/api/v1/personas/5"));
+		assertEquals(LECTURA, grupo("GET", "/api/v1/paises/buscar"));
+		assertEquals(LECTURA, grupo("GET", "/api/v1/paises/3/stats"));
+		assertEquals(COSTOSA, grupo("GET", "/api/v1/personas"));
+		assertEquals(COSTOSA, grupo("GET", "/api/v1/personas/search"));
+		assertEquals(COSTOSA, grupo("POST", "/api/v1/personas/batch"));
+		assertEquals(COSTOSA, grupo("PATCH", "/api/v1/paises/2"));
+	}
+
+	@Test
+	void conexionesLargasYOtrasRutasQuedanFuera() {
+		assertNull(grupo("GET", "/api/v1/personas/changes"));
+		assertNull(grupo("GET", "/api/v1/personas/export"));
+		assertNull(grupo("POST", "/api/v1/personas/import"));
+		assertNull(grupo("GET", "/api/v1/reactivo/personas"));
+		assertNull(grupo("OPTIONS", "/api/v1/personas"));
+		assertNull(grupo("GET", "/actuator/health"));
+	}
+}
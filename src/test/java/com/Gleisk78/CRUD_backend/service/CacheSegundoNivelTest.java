@@ -0,0 +1,95 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.dto.PersonaDTO;
+import com.Gleisk78.CRUD_backend.entity.EventoCambio;
+import com.Gleisk78.CRUD_backend.entity.Pais;
+import com.Gleisk78.CRUD_backend.entity.Persona;
+import com.Gleisk78.CRUD_backend.entity.TipoCambio;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CacheSegundoNivelTest {
+
+	@Autowired
+	private PersonaServicio personaServicio;
+
+	@Autowired
+	private PaisServicio paisServicio;
+
+	@Autowired
+	private CacheSegundoNivel cacheSegundoNivel;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Statistics estadisticas;
+	private Persona persona;
+
+	@BeforeEach
+	void setUp() {
+		estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		Pais pais = paisServicio.createPais(Pais.builder().nombre("País " + System.nanoTime()).build());
+		persona = personaServicio.createPersona(Persona.builder().nombre("Ana").edad(30).pais(pais).build());
+		// En H2 no están los triggers de V10: la ubicación que usan las lecturas por ID se registra a mano
+		jdbcTemplate.update("INSERT INTO ubicaciones_personas (id_persona, id_pais) VALUES (?, ?)", persona.getId(), pais.getId());
+	}
+
+	@Test
+	void getPersonaByIdRepetidoNoEjecutaSql() {
+		personaServicio.getPersonaById(persona.getId());
+		estadisticas.clear();
+
+		for (int i = 0; i < 3; i++) {
+			PersonaDTO leida = personaServicio.getPersonaById(persona.getId()).orElseThrow();
+			assertEquals("Ana", leida.getNombre());
+			assertEquals(persona.getPais().getNombre(), leida.getPaisNombre());
+		}
+
+		assertEquals(0, estadisticas.getPrepareStatementCount());
+		assertTrue(estadisticas.getSecondLevelCacheHitCount() >= 3);
+	}
+
+	@Test
+	void unaActualizacionReemplazaLaEntradaCacheada() {
+		personaServicio.getPersonaById(persona.getId());
+		Persona cambios = Persona.builder().nombre("Ana María").edad(31).pais(persona.getPais()).build();
+		personaServicio.updatePersona(persona.getId(), cambios, null);
+		estadisticas.clear();
+
+		PersonaDTO leida = personaServicio.getPersonaById(persona.getId()).orElseThrow();
+
+		assertEquals("Ana María", leida.getNombre());
+		assertEquals(31, leida.getEdad());
+		assertEquals(0, estadisticas.getPrepareStatementCount());
+	}
+
+	@Test
+	void unEventoDelFeedDesalojaLaEntradaCacheada() {
+		personaServicio.getPersonaById(persona.getId());
+		// Evento de un cambio hecho por otra instancia, tal como lo lee PublicadorCambios
+		EventoCambio evento = EventoCambio.builder().coleccion(VersionColecciones.PERSONAS).tipo(TipoCambio.ACTUALIZADO)
+				.entidadId(persona.getId()).version(persona.getVersion() + 1).build();
+		cacheSegundoNivel.desalojarPorEvento(evento);
+		estadisticas.clear();
+
+		personaServicio.getPersonaById(persona.getId()).orElseThrow();
+
+		// Sin la entrada en la caché la persona se vuelve a leer de la BD
+		assertEquals(1, estadisticas.getPrepareStatementCount());
+		assertTrue(cacheSegundoNivel.contienePersona(persona.getId()));
+	}
+}
@@ -0,0 +1,66 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.dto.EstadisticasPaisDTO;
+import com.Gleisk78.CRUD_backend.service.EstadisticasPaisServicioImpl.ContadoresPais;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EstadisticasPaisServicioImplTest {
+
+	@Test
+	void calculaPoblacionEdadesEHistograma() {
+		ContadoresPais chile = new ContadoresPais();
+		chile.sumar(30, 1);
+		chile.sumar(40, 1);
+		chile.sumar(35, 1);
+		chile.sumar(null, 1);
+
+		EstadisticasPaisDTO dto = chile.aDto(1L);
+		assertEquals(4, dto.getPoblacion());
+		assertEquals(1, dto.getSinEdad());
+		assertEquals(30, dto.getEdadMinima());
+		assertEquals(40, dto.getEdadMaxima());
+		assertEquals(35.0, dto.getEdadPromedio());
+		assertEquals(2L, dto.getHistograma().get("30-39"));
+		assertEquals(1L, dto.getHistograma().get("40-49"));
+	}
+
+	@Test
+	void sumaLasFilasDeDiferenciaSinCompactar() {
+		// Como quedan en estadisticas_pais: la carga inicial, un alta y la mudanza de la persona de 60 a otro país
+		ContadoresPais origen = new ContadoresPais();
+		origen.sumar(25, 1);
+		origen.sumar(60, 1);
+		origen.sumar(60, -1);
+
+		EstadisticasPaisDTO dto = origen.aDto(1L);
+		assertEquals(1, dto.getPoblacion());
+		assertEquals(25, dto.getEdadMaxima()); // El máximo se recalcula tras la salida
+		assertEquals(0L, dto.getHistograma().get("60-69"));
+	}
+
+	@Test
+	void lasEdadesFueraDeRangoNoSeAcotan() {
+		ContadoresPais pais = new ContadoresPais();
+		pais.sumar(-5, 1);
+		pais.sumar(20, 1);
+		pais.sumar(500, 1);
+
+		EstadisticasPaisDTO dto = pais.aDto(1L);
+		assertEquals(-5, dto.getEdadMinima());
+		assertEquals(500, dto.getEdadMaxima());
+		assertEquals(515.0 / 3, dto.getEdadPromedio());
+		// El histograma las agrupa en los rangos de los extremos
+		assertEquals(1L, dto.getHistograma().get("0-9"));
+		assertEquals(1L, dto.getHistograma().get("100+"));
+	}
+
+	@Test
+	void paisSinPersonasDevuelveCeros() {
+		EstadisticasPaisDTO vacio = new ContadoresPais().aDto(99L);
+		assertEquals(0, vacio.getPoblacion());
+		assertNull(vacio.getEdadMinima());
+		assertNull(vacio.getEdadPromedio());
+	}
+}
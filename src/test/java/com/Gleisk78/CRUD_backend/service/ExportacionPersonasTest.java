@@ -0,0 +1,65 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.dto.PersonaDTO;
+import com.Gleisk78.CRUD_backend.repository.PaisRepository;
+import com.Gleisk78.CRUD_backend.repository.PersonaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExportacionPersonasTest {
+
+	private static final List<PersonaDTO> PERSONAS = List.of(
+			new PersonaDTO(1L, "Ana López", 28, 3L, "Chile", 0L, 1L),
+			new PersonaDTO(2L, "Luis Pérez", null, 3L, "Chile", 2L, 1L));
+
+	private static PersonaServicioImpl servicio() {
+		PersonaRepository personaRepository = mock(PersonaRepository.class);
+		when(personaRepository.streamAllDto()).thenAnswer(invocacion -> PERSONAS.stream());
+		return new PersonaServicioImpl(personaRepository, mock(PaisRepository.class), 50, 500,
+				mock(EntityManager.class), new ObjectMapper(), 1000, 50, 10000, 1000, mock(PaisCache.class),
+				mock(VersionColecciones.class), mock(CacheSegundoNivel.class), mock(RegistroCambios.class));
+	}
+
+	private static List<PersonaDTO> leer(ObjectMapper mapper, byte[] bytes) throws Exception {
+		return mapper.readerFor(PersonaDTO.class).<PersonaDTO>readValues(bytes).readAll();
+	}
+
+	@Test
+	void ndjsonEscribeUnaPersonaPorLinea() throws Exception {
+		ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+		assertEquals(2, servicio().exportarPersonas(salida, FormatoExportacion.NDJSON));
+
+		String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(2, lineas.length);
+		for (String linea : lineas) {
+			assertTrue(linea.startsWith("{") && linea.endsWith("}"), linea); // Sin separadores entre objetos
+		}
+		assertEquals(List.of(1L, 2L), leer(new ObjectMapper(), salida.toByteArray()).stream().map(PersonaDTO::getId).toList());
+		assertTrue(lineas[1].contains("Luis Pérez"));
+	}
+
+	@Test
+	void formatosBinariosSeLeenComoSecuenciaDeValores() throws Exception {
+		for (FormatoExportacion formato : List.of(FormatoExportacion.SMILE, FormatoExportacion.CBOR)) {
+			ByteArrayOutputStream salida = new ByteArrayOutputStream();
+			servicio().exportarPersonas(salida, formato);
+
+			ObjectMapper lector = new ObjectMapper(formato == FormatoExportacion.SMILE ? new SmileFactory() : new CBORFactory());
+			List<PersonaDTO> leidas = leer(lector, salida.toByteArray());
+			assertEquals(List.of(1L, 2L), leidas.stream().map(PersonaDTO::getId).toList(), formato.name());
+			assertEquals("Ana López", leidas.get(0).getNombre());
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.dto.RechazoImportacion;
+import com.Gleisk78.CRUD_backend.dto.ResultadoImportacion;
+import com.Gleisk78.CRUD_backend.service.ImportacionPersonasServicioImpl.EntradaContada;
+import com.Gleisk78.CRUD_backend.service.ImportacionPersonasServicioImpl.Importacion;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportacionPersonasServicioImplTest {
+
+	private static final String CSV = "nombre,edad,pais\nAna,30,Chile\nLuis,41,1\nEva,,Perú\n";
+
+	@Test
+	void cuentaBytesYLineasLeyendoPorBloques() throws IOException {
+		byte[] datos = CSV.getBytes(StandardCharsets.UTF_8);
+		Importacion importacion = new Importacion("a", datos.length, true);
+
+		try (InputStream entrada = new EntradaContada(new ByteArrayInputStream(datos), importacion)) {
+			byte[] bloque = new byte[7]; // Más chico que una línea: los saltos quedan repartidos entre lecturas
+			while (entrada.read(bloque, 0, bloque.length) >= 0) {
+				assertTrue(importacion.bytesLeidos <= datos.length);
+			}
+		}
+
+		assertEquals(datos.length, importacion.bytesLeidos);
+		assertEquals(4, importacion.lineasLeidas);
+	}
+
+	@Test
+	void cuentaBytesYLineasLeyendoDeAUnByte() throws IOException {
+		byte[] datos = CSV.getBytes(StandardCharsets.UTF_8);
+		Importacion importacion = new Importacion("a", datos.length, true);
+
+		try (InputStream entrada = new EntradaContada(new ByteArrayInputStream(datos), importacion)) {
+			while (entrada.read() >= 0) {
+				// Solo se consume la entrada
+			}
+		}
+
+		assertEquals(datos.length, importacion.bytesLeidos);
+		assertEquals(4, importacion.lineasLeidas);
+	}
+
+	@Test
+	void mientrasCopiaDescuentaLaLineaDeEncabezado() {
+		Importacion conEncabezado = new Importacion("a", 100, true);
+		conEncabezado.lineasLeidas = 4;
+		assertEquals(3, conEncabezado.resultado(true).getFilasLeidas());
+
+		Importacion sinEncabezado = new Importacion("b", 100, false);
+		sinEncabezado.lineasLeidas = 4;
+		assertEquals(4, sinEncabezado.resultado(true).getFilasLeidas());
+
+		// Antes de terminar de leer el encabezado no hay filas negativas
+		Importacion recienEmpezada = new Importacion("c", 100, true);
+		assertEquals(0, recienEmpezada.resultado(true).getFilasLeidas());
+	}
+
+	@Test
+	void alTerminarInformaLasFilasDeCopyYLosRechazos() {
+		Importacion importacion = new Importacion("a", 100, true);
+		importacion.lineasLeidas = 4;
+		importacion.filasLeidas = 3; // Lo que devuelve COPY, que no cuenta el encabezado ni los saltos dentro de comillas
+		importacion.filasInsertadas = 2;
+		importacion.filasRechazadas = 1;
+		importacion.rechazos.add(new RechazoImportacion(3L, "País no encontrado: Perú"));
+
+		// En curso: los rechazos todavía no se entregan
+		importacion.estado = "PROCESANDO";
+		ResultadoImportacion enCurso = importacion.resultado(true);
+		assertEquals(3, enCurso.getFilasLeidas());
+		assertTrue(enCurso.getRechazos().isEmpty());
+
+		importacion.estado = "TERMINADA";
+		importacion.fin = Instant.now();
+		ResultadoImportacion terminada = importacion.resultado(true);
+		assertEquals("TERMINADA", terminada.getEstado());
+		assertEquals(2, terminada.getFilasInsertadas());
+		assertEquals(1, terminada.getFilasRechazadas());
+		assertEquals(1, terminada.getRechazos().size());
+		assertEquals(3L, terminada.getRechazos().get(0).getFila());
+
+		// El listado de importaciones omite el detalle de los rechazos
+		assertTrue(importacion.resultado(false).getRechazos().isEmpty());
+	}
+}
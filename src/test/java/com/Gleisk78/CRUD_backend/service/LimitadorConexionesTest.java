@@ -0,0 +1,74 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.exception.ServicioSaturadoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LimitadorConexionesTest {
+
+	private SimpleMeterRegistry registro;
+	private LimitadorConexiones limitador;
+
+	@BeforeEach
+	void setUp() {
+		registro = new SimpleMeterRegistry();
+		limitador = new LimitadorConexiones(1, Duration.ofMillis(50), registro);
+	}
+
+	private static ProceedingJoinPoint llamada(ThrowingSupplier cuerpo) throws Throwable {
+		ProceedingJoinPoint llamada = mock(ProceedingJoinPoint.class);
+		when(llamada.getSignature()).thenReturn(mock(Signature.class));
+		when(llamada.proceed()).thenAnswer(invocacion -> cuerpo.get());
+		return llamada;
+	}
+
+	@Test
+	void rechazaCuandoNoHayPermisoDentroDeLaEsperaMaxima() throws Throwable {
+		CountDownLatch ocupado = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		CompletableFuture<Object> primera = CompletableFuture.supplyAsync(() -> {
+			try {
+				return limitador.limitar(llamada(() -> {
+					ocupado.countDown();
+					liberar.await();
+					return "primera";
+				}));
+			} catch (Throwable e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		assertTrue(ocupado.await(5, TimeUnit.SECONDS));
+
+		assertThrows(ServicioSaturadoException.class, () -> limitador.limitar(llamada(() -> "segunda")));
+		assertEquals(1.0, registro.get("limitador.conexiones.rechazos").counter().count());
+
+		liberar.countDown();
+		assertEquals("primera", primera.get(5, TimeUnit.SECONDS));
+		assertEquals("tercera", limitador.limitar(llamada(() -> "tercera")));
+	}
+
+	@Test
+	void unaLlamadaAnidadaNoTomaOtroPermiso() throws Throwable {
+		Object resultado = limitador.limitar(llamada(() -> limitador.limitar(llamada(() -> "anidada"))));
+
+		assertEquals("anidada", resultado);
+		assertEquals(0.0, registro.get("limitador.conexiones.en.uso").gauge().value());
+	}
+
+	@FunctionalInterface
+	private interface ThrowingSupplier {
+		Object get() throws Throwable;
+	}
+}
@@ -0,0 +1,80 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimiteAdaptativoTest {
+
+	private static final long MS = 1_000_000;
+
+	private final AtomicLong reloj = new AtomicLong();
+
+	private LimiteAdaptativo limite(int inicial) {
+		// Ventanas de 100 ms con al menos 10 muestras
+		return new LimiteAdaptativo(inicial, 2, 100, 1.5, 0.5, 100 * MS, 10, 10, reloj::get);
+	}
+
+	// Una ventana completa: 'enVuelo' peticiones a la vez, cada una tardando 'latencia' ms, hasta cerrar la ventana.
+	private void ventana(LimiteAdaptativo limite, int enVuelo, long latencia, boolean fallo) {
+		long fin = reloj.get() + 100 * MS;
+		while (reloj.get() < fin) {
+			List<LimiteAdaptativo.Permiso> permisos = new ArrayList<>();
+			for (int i = 0; i < Math.min(enVuelo, limite.limite()); i++) {
+				permisos.add(limite.adquirir());
+			}
+			reloj.addAndGet(latencia * MS);
+			permisos.forEach(p -> limite.liberar(p, fallo, true));
+		}
+	}
+
+	@Test
+	void rechazaAlAlcanzarElLimiteSinEncolar() {
+		LimiteAdaptativo limite = limite(2);
+
+		LimiteAdaptativo.Permiso primero = limite.adquirir();
+		assertNotNull(primero);
+		assertNotNull(limite.adquirir());
+		assertNull(limite.adquirir());
+
+		limite.liberar(primero, false, true);
+		assertNotNull(limite.adquirir());
+		assertEquals(2, limite.enVuelo());
+	}
+
+	@Test
+	void bajaCuandoSubeLaLatenciaYVuelveACrecerAlRecuperarse() {
+		LimiteAdaptativo limite = limite(20);
+		for (int i = 0; i < 5; i++) {
+			ventana(limite, 100, 10, false);
+		}
+		int normal = limite.limite();
+
+		for (int i = 0; i < 5; i++) {
+			ventana(limite, 100, 80, false);
+		}
+		int degradado = limite.limite();
+		assertTrue(degradado < normal * 2 / 3, "normal=" + normal + " degradado=" + degradado);
+
+		for (int i = 0; i < 10; i++) {
+			ventana(limite, 100, 10, false);
+		}
+		assertTrue(limite.limite() > degradado, "degradado=" + degradado + " recuperado=" + limite.limite());
+	}
+
+	@Test
+	void losFallosRecortanElLimiteSinBajarDelMinimo() {
+		LimiteAdaptativo limite = limite(20);
+		ventana(limite, 20, 10, true);
+		assertEquals(18, limite.limite());
+
+		for (int i = 0; i < 50; i++) {
+			ventana(limite, 20, 10, true);
+		}
+		assertEquals(2, limite.limite());
+	}
+}
@@ -0,0 +1,90 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.entity.Pais;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaisCacheTest {
+
+	private static Pais pais(long id, String nombre) {
+		return Pais.builder().id(id).nombre(nombre).build();
+	}
+
+	@Test
+	void lasCopiasConservanLaVersion() {
+		PaisCache cache = new PaisCache(10);
+		Pais chile = Pais.builder().id(1L).nombre("Chile").version(3L).build();
+
+		cache.buscarPorId(1L, id -> Optional.of(chile));
+		Pais copia = cache.buscarPorId(1L, id -> Optional.empty()).orElseThrow();
+
+		assertEquals(3L, copia.getVersion());
+		assertNotSame(chile, copia);
+	}
+
+	@Test
+	void segundaBusquedaNoLlamaAlCargador() {
+		PaisCache cache = new PaisCache(10);
+		AtomicInteger cargas = new AtomicInteger();
+
+		for (int i = 0; i < 3; i++) {
+			Optional<Pais> chile = cache.buscarPorId(1L, id -> {
+				cargas.incrementAndGet();
+				return Optional.of(pais(1L, "Chile"));
+			});
+			assertEquals("Chile", chile.orElseThrow().getNombre());
+		}
+
+		assertEquals(1, cargas.get());
+		assertEquals(2, cache.estadisticas().getAciertos());
+		assertEquals(1, cache.estadisticas().getFallos());
+	}
+
+	@Test
+	void cacheCompletaRespondeAusenciasSinCargar() {
+		PaisCache cache = new PaisCache(10);
+		cache.cargarTodos(List.of(pais(1L, "Chile"), pais(2L, "Perú")), cache.generacion());
+
+		assertTrue(cache.buscarPorId(99L, id -> fail("No debería consultar la base de datos")).isEmpty());
+		assertEquals(2L, cache.buscarPorNombre("Perú", n -> fail("No debería consultar la base de datos")).orElseThrow().getId());
+	}
+
+	@Test
+	void desalojaLaEntradaMenosUsadaAlSuperarElMaximo() {
+		PaisCache cache = new PaisCache(2);
+		cache.registrar(pais(1L, "Chile"));
+		cache.registrar(pais(2L, "Argentina"));
+		cache.buscarPorId(1L, id -> Optional.empty()); // Chile pasa a ser la más reciente
+		cache.registrar(pais(3L, "Colombia"));
+
+		assertEquals(1, cache.estadisticas().getDesalojos());
+		assertEquals(2, cache.estadisticas().getEntradas());
+		assertFalse(cache.estadisticas().isCompleta());
+		assertTrue(cache.buscarPorNombre("Argentina", n -> Optional.empty()).isEmpty());
+	}
+
+	@Test
+	void actualizarNombreReemplazaLaClaveAnterior() {
+		PaisCache cache = new PaisCache(10);
+		cache.cargarTodos(List.of(pais(1L, "Chile")), cache.generacion());
+		cache.registrar(pais(1L, "República de Chile"));
+
+		assertTrue(cache.buscarPorNombre("Chile", n -> Optional.empty()).isEmpty());
+		assertEquals(1L, cache.buscarPorNombre("República de Chile", n -> Optional.empty()).orElseThrow().getId());
+	}
+
+	@Test
+	void cargaCompletaSeDescartaSiHuboUnaEscrituraDuranteLaLectura() {
+		PaisCache cache = new PaisCache(10);
+		long generacion = cache.generacion();
+		cache.invalidar(1L); // Escritura concurrente
+		cache.cargarTodos(List.of(pais(1L, "Chile")), generacion);
+
+		assertFalse(cache.estadisticas().isCompleta());
+	}
+}
@@ -0,0 +1,36 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.dto.PaginaCursor;
+import com.Gleisk78.CRUD_backend.entity.Pais;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class PaisServicioReactivoImplTest {
+
+	@Test
+	void conLaTablaEnCacheNoConsultaLaBaseDeDatos() {
+		DatabaseClient databaseClient = mock(DatabaseClient.class);
+		PaisCache cache = new PaisCache(10);
+		cache.cargarTodos(List.of(
+				Pais.builder().id(1L).nombre("Chile").build(),
+				Pais.builder().id(2L).nombre("Perú").build(),
+				Pais.builder().id(3L).nombre("Uruguay").build()), cache.generacion());
+		PaisServicioReactivoImpl servicio = new PaisServicioReactivoImpl(databaseClient, cache, 2, 500,
+				mock(VersionColecciones.class));
+
+		PaginaCursor<Pais> pagina = servicio.getPaisesPagina(1L, null).block();
+		Pais uruguay = servicio.getPaisById(3L).block();
+		List<Pais> todos = servicio.streamPaises().collectList().block();
+
+		assertEquals(List.of("Perú", "Uruguay"), pagina.getItems().stream().map(Pais::getNombre).toList());
+		assertEquals("Uruguay", uruguay.getNombre());
+		assertEquals(3, todos.size());
+		verifyNoInteractions(databaseClient);
+	}
+}
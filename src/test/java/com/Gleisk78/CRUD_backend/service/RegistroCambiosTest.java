@@ -0,0 +1,61 @@
+package com.Gleisk78.CRUD_backend.service;
+
+import com.Gleisk78.CRUD_backend.entity.EventoCambio;
+import com.Gleisk78.CRUD_backend.entity.Pais;
+import com.Gleisk78.CRUD_backend.entity.Persona;
+import com.Gleisk78.CRUD_backend.entity.TipoCambio;
+import com.Gleisk78.CRUD_backend.repository.EventoCambioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RegistroCambiosTest {
+
+	@Autowired
+	private PersonaServicio personaServicio;
+
+	@Autowired
+	private PaisServicio paisServicio;
+
+	@Autowired
+	private EventoCambioRepository eventoCambioRepository;
+
+	private long ultimoEvento;
+
+	@BeforeEach
+	void setUp() {
+		ultimoEvento = eventoCambioRepository.findUltimoId();
+	}
+
+	private List<EventoCambio> eventosNuevos() {
+		return eventoCambioRepository.findByIdGreaterThanOrderByIdAsc(ultimoEvento, Limit.of(100));
+	}
+
+	@Test
+	void cadaEscrituraRegistraSuEvento() {
+		Pais pais = paisServicio.createPais(Pais.builder().nombre("País " + System.nanoTime()).build());
+		Persona persona = personaServicio.createPersona(Persona.builder().nombre("Ana").edad(30).pais(pais).build());
+		personaServicio.updatePersona(persona.getId(), Persona.builder().nombre("Ana").edad(31).pais(pais).build(), null);
+		personaServicio.deletePersona(persona.getId());
+
+		List<EventoCambio> eventos = eventosNuevos();
+
+		assertEquals(4, eventos.size());
+		assertEquals(VersionColecciones.PAISES, eventos.get(0).getColeccion());
+		assertEquals(TipoCambio.CREADO, eventos.get(0).getTipo());
+		assertEquals(pais.getId(), eventos.get(0).getEntidadId());
+		assertEquals(List.of(TipoCambio.CREADO, TipoCambio.ACTUALIZADO, TipoCambio.ELIMINADO),
+				eventos.subList(1, 4).stream().map(EventoCambio::getTipo).toList());
+		assertTrue(eventos.subList(1, 4).stream().allMatch(evento -> persona.getId().equals(evento.getEntidadId())));
+		assertEquals(1L, eventos.get(2).getVersion());
+	}
+}